@@ -1,5 +1,6 @@
 plugins {
     `java-library`
+    id("me.champeau.gradle.jmh") version "0.5.0"
 }
 
 repositories {
@@ -11,6 +12,10 @@ configure<JavaPluginConvention> {
     targetCompatibility = JavaVersion.VERSION_1_8
 }
 
+val indexer by sourceSets.creating
+// Flight Recorder events, jdk.jfr is not part of the Java 8 API
+val jfr by sourceSets.creating
+
 dependencies {
     implementation("org.springframework:spring-beans:5.2.0.RELEASE")
     implementation("org.springframework:spring-context:5.2.0.RELEASE")
@@ -18,14 +23,68 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-autoconfigure:2.2.0.RELEASE")
     implementation("org.springframework.boot:spring-boot-actuator:2.2.0.RELEASE")
     compileOnly("javax.servlet:javax.servlet-api:3.1.0")
+    compileOnly("io.micrometer:micrometer-core:1.3.0")
+    implementation(jfr.output)
+    testAnnotationProcessor(indexer.output)
 
     testImplementation("org.springframework:spring-test:5.2.0.RELEASE")
     testImplementation("org.springframework.boot:spring-boot-test:2.2.0.RELEASE")
+    testImplementation("io.micrometer:micrometer-core:1.3.0")
+    testImplementation("javax.servlet:javax.servlet-api:4.0.1")
     testImplementation("org.assertj:assertj-core:3.13.2")
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.4.2")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.4.2")
+
+    // embedded Tomcat co-hosting Jersey and Web MVC, see CoHostingBenchmark
+    jmh("org.springframework.boot:spring-boot-starter-web:2.2.0.RELEASE")
+    jmh("org.springframework.boot:spring-boot-starter-jersey:2.2.0.RELEASE")
+}
+
+val indexerJar by tasks.registering(Jar::class) {
+    archiveClassifier.set("indexer")
+    from(indexer.output)
+}
+
+tasks.named<JavaCompile>("compileJfrJava") {
+    sourceCompatibility = "11"
+    targetCompatibility = "11"
+}
+
+tasks.named<Jar>("jar") {
+    from(jfr.output)
+}
+
+// the tests read the Flight Recorder events back
+tasks.named<JavaCompile>("compileTestJava") {
+    sourceCompatibility = "11"
+    targetCompatibility = "11"
+}
+
+tasks.named("assemble") {
+    dependsOn(indexerJar)
 }
 
 val test by tasks.getting(Test::class) {
     useJUnitPlatform()
 }
+
+jmh {
+    jmhVersion = "1.22"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    resultsFile = file("$buildDir/reports/jmh/results.json")
+    // starts a server per trial, see jmhCoHosting
+    exclude = listOf("CoHostingBenchmark")
+}
+
+val jmhCoHosting by tasks.registering(JavaExec::class) {
+    group = "jmh"
+    description = "Runs the CoHostingBenchmark, its server is forked in a separate JVM."
+    dependsOn("jmhJar")
+    classpath = files(tasks.named<Jar>("jmhJar").flatMap { it.archiveFile })
+    main = "org.openjdk.jmh.Main"
+    args("CoHostingBenchmark",
+         "-prof", "gc",
+         "-rf", "json",
+         "-rff", "$buildDir/reports/jmh/co-hosting.json")
+}
@@ -0,0 +1,106 @@
+package com.github.bric3.spring.autowire.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that records the classes declaring
+ * {@code @AutowireExcluding} fields in {@value #INDEX_LOCATION}.
+ *
+ * <p>The {@code ExcludingAutowiredBeanPostProcessor} reads this index at runtime
+ * and skips the reflective field scanning of any class that is not listed,
+ * much like {@code spring-context-indexer} does for components.</p>
+ *
+ * <p>The annotated fields are also written to {@value #REFLECT_CONFIG_LOCATION},
+ * so a GraalVM native image keeps them and allows their injection.</p>
+ */
+@SupportedAnnotationTypes(AutowireExcludingIndexer.AUTOWIRE_EXCLUDING_ANNOTATION)
+public class AutowireExcludingIndexer extends AbstractProcessor {
+    static final String AUTOWIRE_EXCLUDING_ANNOTATION = "com.github.bric3.spring.autowire.AutowireExcluding";
+    static final String INDEX_LOCATION = "META-INF/autowire-excluding.index";
+    static final String REFLECT_CONFIG_LOCATION = "META-INF/native-image/autowire-excluding/reflect-config.json";
+
+    private final Map<String, Set<String>> indexedFields = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    TypeElement declaringType = (TypeElement) element.getEnclosingElement();
+                    indexedFields.computeIfAbsent(processingEnv.getElementUtils().getBinaryName(declaringType).toString(),
+                                                  type -> new TreeSet<>())
+                                 .add(element.getSimpleName().toString());
+                }
+            }
+        }
+
+        if (roundEnv.processingOver() && !indexedFields.isEmpty()) {
+            write(INDEX_LOCATION, this::writeIndex);
+            write(REFLECT_CONFIG_LOCATION, this::writeReflectConfig);
+        }
+        return false;
+    }
+
+    private void writeIndex(Writer writer) throws IOException {
+        for (String indexedType : indexedFields.keySet()) {
+            writer.write(indexedType);
+            writer.write('\n');
+        }
+    }
+
+    private void writeReflectConfig(Writer writer) throws IOException {
+        writer.write("[");
+        String typeSeparator = "\n";
+        for (Map.Entry<String, Set<String>> indexedType : indexedFields.entrySet()) {
+            writer.write(typeSeparator);
+            writer.write("  {\n    \"name\": \"" + indexedType.getKey() + "\",\n    \"fields\": [");
+            String fieldSeparator = "\n";
+            for (String field : indexedType.getValue()) {
+                writer.write(fieldSeparator);
+                writer.write("      { \"name\": \"" + field + "\", \"allowWrite\": true }");
+                fieldSeparator = ",\n";
+            }
+            writer.write("\n    ]\n  }");
+            typeSeparator = ",\n";
+        }
+        writer.write("\n]\n");
+    }
+
+    private void write(String location, ResourceWriter resourceWriter) {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (Writer writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                resourceWriter.write(writer);
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "Unable to write " + location + ": " + ex);
+        }
+    }
+
+    private interface ResourceWriter {
+        void write(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.bric3.spring.condition.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor that records the {@code @ConditionalOnPropertiesCollection}
+ * attributes of the annotated classes, directly or through a meta-annotation,
+ * in {@value #METADATA_LOCATION}.
+ *
+ * <p>The {@code PropertiesCollectionAutoConfigurationImportFilter} reads this metadata
+ * to reject auto-configurations before their classes are loaded, much like
+ * {@code spring-boot-autoconfigure-processor} does for {@code @ConditionalOnClass}.
+ * Properties are written as:</p>
+ * <pre>
+ * com.example.FooAutoConfiguration.ConditionalOnPropertiesCollection=foo.routes
+ * com.example.FooAutoConfiguration.ConditionalOnPropertiesCollection.subProperties=path,target
+ * </pre>
+ */
+@SupportedAnnotationTypes("*")
+public class PropertiesCollectionConditionIndexer extends AbstractProcessor {
+    static final String CONDITION_ANNOTATION = "com.github.bric3.spring.condition.ConditionalOnPropertiesCollection";
+    static final String METADATA_LOCATION = "META-INF/leftouts-autoconfigure-metadata.properties";
+    private static final String CONDITION_KEY = ".ConditionalOnPropertiesCollection";
+
+    private final Map<String, String> properties = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            processType(element);
+        }
+
+        if (roundEnv.processingOver() && !properties.isEmpty()) {
+            writeMetadata();
+        }
+        return false;
+    }
+
+    private void processType(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return;
+        }
+        AnnotationMirror condition = findCondition(element);
+        if (condition != null) {
+            String typeName = processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString();
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> attribute :
+                    processingEnv.getElementUtils().getElementValuesWithDefaults(condition).entrySet()) {
+                String attributeName = attribute.getKey().getSimpleName().toString();
+                if (attributeName.equals("name")) {
+                    properties.put(typeName + CONDITION_KEY, (String) attribute.getValue().getValue());
+                } else if (attributeName.equals("subProperties")) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> values = (List<? extends AnnotationValue>) attribute.getValue().getValue();
+                    properties.put(typeName + CONDITION_KEY + ".subProperties",
+                                   values.stream().map(value -> (String) value.getValue()).collect(Collectors.joining(",")));
+                }
+            }
+        }
+        for (Element enclosed : element.getEnclosedElements()) {
+            processType(enclosed);
+        }
+    }
+
+    /**
+     * The annotation declared on the type takes precedence over a meta-annotation.
+     */
+    private static AnnotationMirror findCondition(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (isCondition(annotation)) {
+                return annotation;
+            }
+        }
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            for (AnnotationMirror metaAnnotation : annotation.getAnnotationType().asElement().getAnnotationMirrors()) {
+                if (isCondition(metaAnnotation)) {
+                    return metaAnnotation;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCondition(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                                                                         .contentEquals(CONDITION_ANNOTATION);
+    }
+
+    private void writeMetadata() {
+        try {
+            FileObject metadata = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_LOCATION);
+            try (Writer writer = new OutputStreamWriter(metadata.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> property : properties.entrySet()) {
+                    writer.write(property.getKey());
+                    writer.write('=');
+                    writer.write(property.getValue());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     "Unable to write " + METADATA_LOCATION + ": " + ex);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.bric3.spring.actuate;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events, only loaded when {@code jdk.jfr} is available.
+ *
+ * <p>Compiled from the {@code jfr} source set, as {@code jdk.jfr} is not part of the
+ * Java 8 API. The measured time is carried by an {@code elapsed} field, the events
+ * are emitted once the work is done, and {@link Event} already declares {@code duration}.</p>
+ */
+final class LeftoutsFlightRecorderEvents {
+
+    private LeftoutsFlightRecorderEvents() {
+    }
+
+    static void autowireExcluding(String beanName, long duration) {
+        AutowireExcludingEvent event = new AutowireExcludingEvent();
+        if (event.shouldCommit()) {
+            event.beanName = beanName;
+            event.elapsed = duration;
+            event.commit();
+        }
+    }
+
+    static void propertiesCollectionCondition(String annotatedElement, String propertyName, boolean matched, long duration) {
+        PropertiesCollectionConditionEvent event = new PropertiesCollectionConditionEvent();
+        if (event.shouldCommit()) {
+            event.annotatedElement = annotatedElement;
+            event.propertyName = propertyName;
+            event.matched = matched;
+            event.elapsed = duration;
+            event.commit();
+        }
+    }
+
+    static void webMvcHack(String step, long duration) {
+        WebMvcHackEvent event = new WebMvcHackEvent();
+        if (event.shouldCommit()) {
+            event.step = step;
+            event.elapsed = duration;
+            event.commit();
+        }
+    }
+
+    @Name("com.github.bric3.spring.AutowireExcluding")
+    @Label("@AutowireExcluding Injection")
+    @Category("Spring Boot Leftouts")
+    static class AutowireExcludingEvent extends Event {
+        @Label("Bean Name")
+        String beanName;
+
+        @Label("Injection Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("com.github.bric3.spring.PropertiesCollectionCondition")
+    @Label("@ConditionalOnPropertiesCollection Evaluation")
+    @Category("Spring Boot Leftouts")
+    static class PropertiesCollectionConditionEvent extends Event {
+        @Label("Annotated Element")
+        String annotatedElement;
+
+        @Label("Property Name")
+        String propertyName;
+
+        @Label("Matched")
+        boolean matched;
+
+        @Label("Evaluation Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+
+    @Name("com.github.bric3.spring.WebMvcHack")
+    @Label("Web MVC plus Jersey Configuration")
+    @Category("Spring Boot Leftouts")
+    static class WebMvcHackEvent extends Event {
+        @Label("Step")
+        String step;
+
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long elapsed;
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.bric3.spring.autowire;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link ExcludingAutowiredBeanPostProcessor} for consumers of a
+ * candidate list in synthetic contexts, the candidates are looked up among all the beans.
+ * Beans without any injection point are measured by
+ * {@link ExcludingAutowiredBeanPostProcessorMetadataBenchmark}.
+ *
+ * Run with {@code ./gradlew jmh}, the {@code gc} profiler reports the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcludingAutowiredBeanPostProcessorBenchmark {
+
+    private static final int PLUGIN_EVERY = 100;
+
+    @Param({"1000", "10000", "50000"})
+    private int beanCount;
+
+    private GenericApplicationContext context;
+    private ExcludingAutowiredBeanPostProcessor postProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new GenericApplicationContext();
+        context.registerBean("excludingAutowiredBeanPostProcessor", ExcludingAutowiredBeanPostProcessor.class);
+        context.registerBean(PluginConsumer.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+        for (int i = 0; i < beanCount; i++) {
+            if (i % PLUGIN_EVERY == 0) {
+                context.registerBean("plugin" + i, Plugin.class);
+            } else if (i % PLUGIN_EVERY == 1) {
+                context.registerBean("excludedPlugin" + i, ExcludedPlugin.class);
+            } else {
+                context.registerBean("plain" + i, PlainBean.class);
+            }
+        }
+        context.refresh();
+
+        postProcessor = context.getBean(ExcludingAutowiredBeanPostProcessor.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object postProcessConsumer() {
+        return postProcessor.postProcessBeforeInitialization(new PluginConsumer(), "pluginConsumer");
+    }
+
+    @Benchmark
+    public Object createPrototypeConsumer() {
+        return context.getBean(PluginConsumer.class);
+    }
+
+    public static class PlainBean {
+        private String name;
+        private int value;
+    }
+
+    public static class Plugin {
+    }
+
+    @Qualifier("excluded")
+    public static class ExcludedPlugin extends Plugin {
+    }
+
+    public static class PluginConsumer {
+        @AutowireExcluding(qualifierToExcludeValue = "excluded", aClass = Plugin.class)
+        private List<Plugin> plugins;
+    }
+}
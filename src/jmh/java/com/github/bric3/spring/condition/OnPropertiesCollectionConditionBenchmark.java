@@ -0,0 +1,128 @@
+package com.github.bric3.spring.condition;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OnPropertiesCollectionCondition#getMatchOutcome} against property
+ * collections of growing size, when the collection matches and when the last element
+ * misses a sub-property, either by binding the collection or by streaming the property names.
+ * Conditions are evaluated once per startup, hence the single shot mode, large collections can be selected with {@code -p entries=100000}.
+ *
+ * Run with {@code ./gradlew jmh}, the {@code gc} profiler reports the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OnPropertiesCollectionConditionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int entries;
+
+    @Param({"true", "false"})
+    private boolean complete;
+
+    @Param({"false", "true"})
+    private boolean streaming;
+
+    private final OnPropertiesCollectionCondition condition = new OnPropertiesCollectionCondition();
+    private AnnotationMetadata metadata;
+    private StandardEnvironment environment;
+    private ConditionContext conditionContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            properties.put("bench.routes[" + i + "].path", "/route/" + i);
+            if (complete || i < entries - 1) {
+                properties.put("bench.routes[" + i + "].target", "http://backend-" + (i % 16) + ":8080");
+            }
+        }
+        metadata = AnnotationMetadata.introspect(streaming ? StreamingGuardedConfiguration.class : GuardedConfiguration.class);
+        environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("bench", properties));
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpConditionContext() {
+        // fresh bean factory, thus no memoized binding from a previous evaluation
+        conditionContext = new SimpleConditionContext(environment);
+    }
+
+    @Benchmark
+    public ConditionOutcome getMatchOutcome() {
+        return condition.getMatchOutcome(conditionContext, metadata);
+    }
+
+    @ConditionalOnPropertiesCollection(name = "bench.routes", subProperties = {"path", "target"})
+    static class GuardedConfiguration {
+    }
+
+    @ConditionalOnPropertiesCollection(name = "bench.routes", subProperties = {"path", "target"}, streaming = true)
+    static class StreamingGuardedConfiguration {
+    }
+
+    private static class SimpleConditionContext implements ConditionContext {
+        private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+        private final Environment environment;
+
+        SimpleConditionContext(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public BeanDefinitionRegistry getRegistry() {
+            return beanFactory;
+        }
+
+        @Override
+        public ConfigurableListableBeanFactory getBeanFactory() {
+            return beanFactory;
+        }
+
+        @Override
+        public Environment getEnvironment() {
+            return environment;
+        }
+
+        @Override
+        public ResourceLoader getResourceLoader() {
+            return resourceLoader;
+        }
+
+        @Override
+        public ClassLoader getClassLoader() {
+            return resourceLoader.getClassLoader();
+        }
+    }
+}
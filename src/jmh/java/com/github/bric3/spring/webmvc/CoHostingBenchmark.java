@@ -0,0 +1,323 @@
+package com.github.bric3.spring.webmvc;
+
+import com.sun.management.ThreadMXBean;
+import org.glassfish.jersey.process.Inflector;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.servlet.ServletProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.MediaType;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the per request cost of co-hosting Jersey and Spring Web MVC on the root
+ * path of an embedded Tomcat, driven over HTTP from the benchmark threads. The server
+ * runs in its own JVM, started for each trial, so it does not share the heap and the
+ * CPUs of the client.
+ *
+ * <ul>
+ *     <li>{@code jersey-filter}, plain Spring Boot, Jersey registered as a filter that
+ *     forwards its 404s to the `DispatcherServlet` mapped on {@code /}.</li>
+ *     <li>{@code servlet-url-mappings}, the {@link SpringWebMvcPlusJerseyHackConfiguration}
+ *     with the `DispatcherServlet` mapped on {@code /mvc/*}, Jersey on {@code /*}.</li>
+ *     <li>{@code routing-filter}, the same with the {@link UrlMappingsRoutingFilter}.</li>
+ * </ul>
+ *
+ * Each side serves {@code routes} templated routes, {@code /mvc/route<n>/{id}} and
+ * {@code /jersey/route<n>/{id}}, requests pick a route at random. The {@code throughput}
+ * and {@code latency} methods report the requests per second and the p50/p99 latency.
+ * The {@code gc} profiler only reports the allocation of the client, the allocation of
+ * the server threads per request is printed after each iteration.
+ * Each strategy is checked to route both sides before being measured.
+ *
+ * Not part of the default {@code ./gradlew jmh} run, run with {@code ./gradlew jmhCoHosting}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CoHostingBenchmark {
+
+    @Param({"jersey-filter", "servlet-url-mappings", "routing-filter"})
+    private String strategy;
+
+    @Param({"10", "200"})
+    private int routes;
+
+    @Param({"mvc", "jersey"})
+    private String target;
+
+    private Process server;
+    private BufferedReader serverOutput;
+    private Writer serverInput;
+    private String baseUrl;
+
+    private final LongAdder requests = new LongAdder();
+    private long serverAllocatedBytes;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        // one kept-alive connection per benchmark thread
+        System.setProperty("http.maxConnections", "64");
+
+        server = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                                    "-cp", System.getProperty("java.class.path"),
+                                    Server.class.getName(), strategy, Integer.toString(routes))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        serverOutput = new BufferedReader(new InputStreamReader(server.getInputStream(), StandardCharsets.US_ASCII));
+        serverInput = new OutputStreamWriter(server.getOutputStream(), StandardCharsets.US_ASCII);
+        baseUrl = "http://localhost:" + readServerValue("port") + "/" + target + "/route";
+
+        for (int route : new int[]{0, routes - 1}) {
+            String body = request(route, new byte[256]);
+            if (!target.equals(body)) {
+                throw new IllegalStateException(strategy + " routed " + baseUrl + route + " to '" + body + "'");
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() throws IOException {
+        requests.reset();
+        serverAllocatedBytes = serverAllocatedBytes();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() throws IOException {
+        long allocatedBytes = serverAllocatedBytes() - serverAllocatedBytes;
+        long count = requests.sum();
+        System.out.printf("server: %d B/request over %d requests%n", count == 0 ? 0 : allocatedBytes / count, count);
+    }
+
+    private long serverAllocatedBytes() throws IOException {
+        serverInput.write("allocated\n");
+        serverInput.flush();
+        return Long.parseLong(readServerValue("allocated"));
+    }
+
+    /**
+     * Reads the output of the server up to the next {@code key=value} line.
+     */
+    private String readServerValue(String key) throws IOException {
+        String prefix = key + "=";
+        for (String line; (line = serverOutput.readLine()) != null; ) {
+            if (line.startsWith(prefix)) {
+                return line.substring(prefix.length());
+            }
+        }
+        throw new IllegalStateException(strategy + " server exited before answering " + key);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws IOException, InterruptedException {
+        // the server exits when its input is closed
+        serverInput.close();
+        if (!server.waitFor(10, TimeUnit.SECONDS)) {
+            server.destroyForcibly();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public String throughput(Client client) throws IOException {
+        return request(ThreadLocalRandom.current().nextInt(routes), client.buffer);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String latency(Client client) throws IOException {
+        return request(ThreadLocalRandom.current().nextInt(routes), client.buffer);
+    }
+
+    private String request(int route, byte[] buffer) throws IOException {
+        requests.increment();
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + route + "/42").openConnection();
+        int status = connection.getResponseCode();
+        if (status != 200) {
+            if (connection.getErrorStream() != null) {
+                StreamUtils.drain(connection.getErrorStream());
+            }
+            throw new IllegalStateException(strategy + " answered " + status + " for " + connection.getURL());
+        }
+        // the body is read to the end, so the connection goes back to the keep-alive cache
+        try (InputStream body = connection.getInputStream()) {
+            int length = 0;
+            for (int read; (read = body.read(buffer, length, buffer.length - length)) > 0; ) {
+                length += read;
+            }
+            return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        final byte[] buffer = new byte[256];
+    }
+
+    /**
+     * Starts the application for a strategy, prints {@code port=<port>}, then answers
+     * each {@code allocated} line read from its input with {@code allocated=<bytes>},
+     * the bytes allocated by the live threads of the server. Exits when its input is closed.
+     * The logs go to the error output, which is not read by the benchmark.
+     */
+    public static class Server {
+
+        public static void main(String[] args) throws IOException {
+            PrintStream out = System.out;
+            System.setOut(System.err);
+            String strategy = args[0];
+            int routes = Integer.parseInt(args[1]);
+
+            SpringApplication application = new SpringApplication(CoHostingApplication.class);
+            switch (strategy) {
+                case "jersey-filter":
+                    application.setDefaultProperties(properties(routes, "spring.jersey.type=filter"));
+                    break;
+                case "servlet-url-mappings":
+                    application.setAdditionalProfiles("web-mvc-config-hack-mitigation");
+                    application.setDefaultProperties(properties(routes, "spring.mvc.url-mappings=/mvc/*"));
+                    break;
+                case "routing-filter":
+                    application.setAdditionalProfiles("web-mvc-config-hack-mitigation");
+                    application.setDefaultProperties(properties(routes,
+                                                                "spring.mvc.url-mappings=/mvc/*",
+                                                                "spring.mvc.url-mappings-routing=filter"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown strategy: " + strategy);
+            }
+            try (ConfigurableApplicationContext context = application.run()) {
+                registerMvcRoutes(context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class),
+                                  routes);
+                out.println("port=" + ((ServletWebServerApplicationContext) context).getWebServer().getPort());
+
+                ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+                BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+                for (String command; (command = commands.readLine()) != null; ) {
+                    if ("allocated".equals(command)) {
+                        long allocatedBytes = 0;
+                        for (long threadAllocatedBytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                            // -1 for the threads that exited meanwhile
+                            allocatedBytes += Math.max(0, threadAllocatedBytes);
+                        }
+                        out.println("allocated=" + allocatedBytes);
+                    }
+                }
+            }
+        }
+
+        private static Map<String, Object> properties(int routes, String... properties) {
+            Map<String, Object> defaultProperties = new HashMap<>();
+            defaultProperties.put("server.port", "0");
+            defaultProperties.put("spring.main.banner-mode", "off");
+            defaultProperties.put("logging.level.root", "warn");
+            defaultProperties.put("bench.routes", routes);
+            for (String property : properties) {
+                String[] keyValue = property.split("=", 2);
+                defaultProperties.put(keyValue[0], keyValue[1]);
+            }
+            return defaultProperties;
+        }
+
+        private static void registerMvcRoutes(RequestMappingHandlerMapping handlerMapping, int routes) {
+            RequestMappingInfo.BuilderConfiguration builderConfiguration = new RequestMappingInfo.BuilderConfiguration();
+            builderConfiguration.setUrlPathHelper(handlerMapping.getUrlPathHelper());
+            builderConfiguration.setPathMatcher(handlerMapping.getPathMatcher());
+            MvcRoute handler = new MvcRoute();
+            for (int i = 0; i < routes; i++) {
+                handlerMapping.registerMapping(RequestMappingInfo.paths("/mvc/route" + i + "/{id}")
+                                                                 .methods(RequestMethod.GET)
+                                                                 .options(builderConfiguration)
+                                                                 .build(),
+                                               handler,
+                                               MvcRoute.HANDLE);
+            }
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @Import(SpringWebMvcPlusJerseyHackConfiguration.class)
+    static class CoHostingApplication {
+
+        @Bean
+        ResourceConfig jerseyRoutes(Environment environment) {
+            ResourceConfig resourceConfig = new ResourceConfig();
+            // only read by the Jersey filter, the not found requests go down the chain to the DispatcherServlet
+            resourceConfig.property(ServletProperties.FILTER_FORWARD_ON_404, true);
+            // not a lambda, Jersey resolves the request type from the generic signature
+            Inflector<ContainerRequestContext, String> handler = new Inflector<ContainerRequestContext, String>() {
+                @Override
+                public String apply(ContainerRequestContext request) {
+                    return "jersey";
+                }
+            };
+            int routes = environment.getRequiredProperty("bench.routes", Integer.class);
+            for (int i = 0; i < routes; i++) {
+                Resource.Builder resource = Resource.builder("jersey/route" + i + "/{id}");
+                resource.addMethod("GET").produces(MediaType.TEXT_PLAIN_TYPE).handledBy(handler);
+                resourceConfig.registerResources(resource.build());
+            }
+            return resourceConfig;
+        }
+    }
+
+    static class MvcRoute {
+        static final Method HANDLE = ReflectionUtils.findMethod(MvcRoute.class, "handle");
+
+        @ResponseBody
+        public String handle() {
+            return "mvc";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.bric3.spring.webmvc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the matching of a request path against every pattern of a route set,
+ * as {@code RequestMappingHandlerMapping} does when the path is not a direct match,
+ * with the {@link AntPathMatcher} and with the {@link PrecompiledPathMatcher}.
+ *
+ * The route set mixes literal, template variable, wildcard and actuator patterns,
+ * resources under {@code /api/v1/resource<n>}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathMatcherBenchmark {
+
+    @Param({"ant", "precompiled"})
+    private String matcher;
+
+    @Param({"50", "200"})
+    private int resources;
+
+    private PathMatcher pathMatcher;
+    private String[] patterns;
+
+    @Setup
+    public void setUp() {
+        pathMatcher = matcher.equals("ant") ? new AntPathMatcher() : PrecompiledPathMatcher.INSTANCE;
+
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < resources; i++) {
+            String resource = "/api/v1/resource" + i;
+            patterns.add(resource);
+            patterns.add(resource + "/{id}");
+            patterns.add(resource + "/{id}/items/{itemId}");
+            patterns.add(resource + "/{id}.*");
+            patterns.add(resource + "/*/export");
+        }
+        patterns.add("/actuator/health");
+        patterns.add("/actuator/health/**");
+        patterns.add("/actuator/metrics/{requiredMetricName}");
+        this.patterns = patterns.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void templatedPath(Blackhole blackhole) {
+        matchAll("/api/v1/resource" + (resources - 1) + "/42/items/7", blackhole);
+    }
+
+    @Benchmark
+    public void actuatorPath(Blackhole blackhole) {
+        matchAll("/actuator/metrics/jvm.memory.used", blackhole);
+    }
+
+    @Benchmark
+    public void unknownPath(Blackhole blackhole) {
+        matchAll("/static/app.js", blackhole);
+    }
+
+    private void matchAll(String path, Blackhole blackhole) {
+        for (String pattern : patterns) {
+            blackhole.consume(pathMatcher.match(pattern, path));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.bric3.spring.actuate;
+
+import com.github.bric3.spring.condition.PropertiesCollectionBindings;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link Endpoint @Endpoint} exposing the {@link LeftoutsStartupMetrics}
+ * and the {@link PropertiesCollectionBindings} cache statistics.
+ */
+@Endpoint(id = "leftouts")
+public class LeftoutsEndpoint {
+    private final LeftoutsStartupMetrics metrics;
+    private final PropertiesCollectionBindings bindings;
+
+    public LeftoutsEndpoint(LeftoutsStartupMetrics metrics, PropertiesCollectionBindings bindings) {
+        this.metrics = metrics;
+        this.bindings = bindings;
+    }
+
+    @ReadOperation
+    public Map<String, Object> leftouts() {
+        Map<String, Object> autowireExcluding = new LinkedHashMap<>();
+        autowireExcluding.put("resolvedCandidates", metrics.getResolvedCandidates());
+        autowireExcluding.put("excludedCandidates", metrics.getExcludedCandidates());
+        autowireExcluding.put("beans", metrics.getAutowireExcludingTimings());
+        autowireExcluding.put("candidates", metrics.getCandidateCreationTimings());
+
+        Map<String, Object> propertiesCollectionBindings = new LinkedHashMap<>();
+        propertiesCollectionBindings.put("hits", bindings.getHits());
+        propertiesCollectionBindings.put("misses", bindings.getMisses());
+
+        Map<String, Object> descriptor = new LinkedHashMap<>();
+        descriptor.put("enabled", metrics.isEnabled());
+        descriptor.put("autowireExcluding", autowireExcluding);
+        descriptor.put("propertiesCollectionConditions", metrics.getConditionTimings());
+        descriptor.put("propertiesCollectionBindings", propertiesCollectionBindings);
+        descriptor.put("webMvcHack", metrics.getWebMvcHackTimings());
+        return descriptor;
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.bric3.spring.actuate;
+
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics.Timing;
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics.TimingKind;
+import com.github.bric3.spring.condition.PropertiesCollectionBindings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the {@link LeftoutsStartupMetrics} and the {@link PropertiesCollectionBindings}
+ * cache statistics as Micrometer timers and counters.
+ *
+ * <p>Timers are not tagged by bean name to keep the cardinality bounded,
+ * the detail by bean is available from the {@link LeftoutsEndpoint}. The timers
+ * by condition and by step are also registered for the keys recorded after binding,
+ * e.g. the refresh of lazy `DispatcherServlet` shards.</p>
+ */
+public class LeftoutsMeterBinder implements MeterBinder {
+    private final LeftoutsStartupMetrics metrics;
+    private final PropertiesCollectionBindings bindings;
+
+    public LeftoutsMeterBinder(LeftoutsStartupMetrics metrics, PropertiesCollectionBindings bindings) {
+        this.metrics = metrics;
+        this.bindings = bindings;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("leftouts.condition.bindings", bindings, PropertiesCollectionBindings::getHits)
+                       .tag("result", "hit")
+                       .register(registry);
+        FunctionCounter.builder("leftouts.condition.bindings", bindings, PropertiesCollectionBindings::getMisses)
+                       .tag("result", "miss")
+                       .register(registry);
+
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        FunctionTimer.builder("leftouts.autowire.injection",
+                              metrics,
+                              m -> sum(m.getAutowireExcludingTimings(), false),
+                              m -> sum(m.getAutowireExcludingTimings(), true),
+                              TimeUnit.NANOSECONDS)
+                     .description("Time spent injecting @AutowireExcluding fields")
+                     .register(registry);
+        FunctionTimer.builder("leftouts.autowire.candidate.creation",
+                              metrics,
+                              m -> sum(m.getCandidateCreationTimings(), false),
+                              m -> sum(m.getCandidateCreationTimings(), true),
+                              TimeUnit.NANOSECONDS)
+                     .description("Time spent creating @AutowireExcluding candidates while injecting them")
+                     .register(registry);
+        FunctionCounter.builder("leftouts.autowire.candidates", metrics, LeftoutsStartupMetrics::getResolvedCandidates)
+                       .tag("outcome", "resolved")
+                       .register(registry);
+        FunctionCounter.builder("leftouts.autowire.candidates", metrics, LeftoutsStartupMetrics::getExcludedCandidates)
+                       .tag("outcome", "excluded")
+                       .register(registry);
+
+        // registered before reading the existing keys, so that none is missed
+        metrics.addTimingListener((kind, key, timing) -> registerTimer(registry, kind, key, timing));
+        metrics.getConditionTimings().forEach((key, timing) -> registerTimer(registry, TimingKind.CONDITION, key, timing));
+        metrics.getWebMvcHackTimings().forEach((step, timing) -> registerTimer(registry, TimingKind.WEB_MVC_HACK, step, timing));
+    }
+
+    private static void registerTimer(MeterRegistry registry, TimingKind kind, String key, Timing timing) {
+        switch (kind) {
+            case CONDITION:
+                int separator = key.lastIndexOf('#');
+                registerTimer(registry,
+                              "leftouts.condition.evaluation",
+                              timing,
+                              "element", key.substring(0, separator),
+                              "property", key.substring(separator + 1));
+                break;
+            case WEB_MVC_HACK:
+                registerTimer(registry, "leftouts.webmvc.hack", timing, "step", key);
+                break;
+            default:
+                // summed in a single timer, see bindTo
+        }
+    }
+
+    private static void registerTimer(MeterRegistry registry, String name, Timing timing, String... tags) {
+        FunctionTimer.builder(name, timing, Timing::getCount, Timing::getTotalTimeNanos, TimeUnit.NANOSECONDS)
+                     .tags(tags)
+                     .register(registry);
+    }
+
+    private static long sum(Map<String, Timing> timings, boolean totalTime) {
+        long sum = 0;
+        for (Timing timing : timings.values()) {
+            sum += totalTime ? timing.getTotalTimeNanos() : timing.getCount();
+        }
+        return sum;
+    }
+}
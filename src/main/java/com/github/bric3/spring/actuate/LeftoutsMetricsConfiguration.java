@@ -0,0 +1,36 @@
+package com.github.bric3.spring.actuate;
+
+import com.github.bric3.spring.condition.PropertiesCollectionBindings;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuration exposing the {@link LeftoutsStartupMetrics} via the {@code leftouts}
+ * actuator endpoint, and via Micrometer when available.
+ *
+ * <p>Recording itself is enabled with the {@value LeftoutsStartupMetrics#ENABLED_PROPERTY} property.</p>
+ */
+@Configuration
+public class LeftoutsMetricsConfiguration {
+
+    @Bean
+    LeftoutsEndpoint leftoutsEndpoint(ConfigurableListableBeanFactory beanFactory, Environment environment) {
+        return new LeftoutsEndpoint(LeftoutsStartupMetrics.get(beanFactory, environment),
+                                    PropertiesCollectionBindings.get(beanFactory));
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class LeftoutsMeterBinderConfiguration {
+
+        @Bean
+        LeftoutsMeterBinder leftoutsMeterBinder(ConfigurableListableBeanFactory beanFactory, Environment environment) {
+            return new LeftoutsMeterBinder(LeftoutsStartupMetrics.get(beanFactory, environment),
+                                           PropertiesCollectionBindings.get(beanFactory));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.bric3.spring.actuate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the time spent by the leftouts components while the application starts.
+ *
+ * <p>A single instance is registered as a singleton named {@value #BEAN_NAME} in the
+ * bean factory the first time a component asks for it, as conditions run before any
+ * bean is created. Recording is enabled with the {@value #ENABLED_PROPERTY} property,
+ * when disabled components only pay a boolean check. Flight Recorder events are
+ * additionally emitted when {@value #JFR_ENABLED_PROPERTY} is set and the runtime
+ * supports {@code jdk.jfr}. The event classes target Java 11, on older runtimes,
+ * e.g. Java 8 with {@code jdk.jfr}, they fail to load and no event is emitted.</p>
+ *
+ * @see LeftoutsEndpoint
+ * @see LeftoutsMeterBinder
+ */
+public final class LeftoutsStartupMetrics {
+    public static final String BEAN_NAME = "leftoutsStartupMetrics";
+    public static final String ENABLED_PROPERTY = "leftouts.metrics.enabled";
+    public static final String JFR_ENABLED_PROPERTY = "leftouts.metrics.jfr.enabled";
+    static final String FLIGHT_RECORDER_EVENTS_CLASS_NAME = "com.github.bric3.spring.actuate.LeftoutsFlightRecorderEvents";
+
+    private static final Log logger = LogFactory.getLog(LeftoutsStartupMetrics.class);
+
+    /**
+     * Shared instance for when no bean factory is available, it records nothing.
+     */
+    public static final LeftoutsStartupMetrics DISABLED = new LeftoutsStartupMetrics(false, false);
+
+    private final boolean enabled;
+    private final boolean jfrEnabled;
+    private final Map<String, Timing> autowireExcludingTimings = new ConcurrentHashMap<>();
+    private final Map<String, Timing> candidateCreationTimings = new ConcurrentHashMap<>();
+    private final Map<String, Timing> conditionTimings = new ConcurrentHashMap<>();
+    private final Map<String, Timing> webMvcHackTimings = new ConcurrentHashMap<>();
+    private final LongAdder resolvedCandidates = new LongAdder();
+    private final LongAdder excludedCandidates = new LongAdder();
+    private final List<TimingListener> timingListeners = new CopyOnWriteArrayList<>();
+
+    private LeftoutsStartupMetrics(boolean enabled, boolean jfrEnabled) {
+        this.enabled = enabled;
+        this.jfrEnabled = jfrEnabled;
+    }
+
+    /**
+     * Returns the metrics registered in the given bean factory, registering them if needed.
+     */
+    public static LeftoutsStartupMetrics get(@Nullable ConfigurableListableBeanFactory beanFactory,
+                                             @Nullable Environment environment) {
+        if (beanFactory == null || environment == null) {
+            return DISABLED;
+        }
+        Object metrics = beanFactory.getSingleton(BEAN_NAME);
+        if (metrics == null) {
+            synchronized (beanFactory.getSingletonMutex()) {
+                metrics = beanFactory.getSingleton(BEAN_NAME);
+                if (metrics == null) {
+                    boolean enabled = environment.getProperty(ENABLED_PROPERTY, Boolean.class, false);
+                    boolean jfrEnabled = enabled
+                                         && environment.getProperty(JFR_ENABLED_PROPERTY, Boolean.class, false)
+                                         && isFlightRecorderAvailable(LeftoutsStartupMetrics.class.getClassLoader());
+                    metrics = new LeftoutsStartupMetrics(enabled, jfrEnabled);
+                    beanFactory.registerSingleton(BEAN_NAME, metrics);
+                }
+            }
+        }
+        return (LeftoutsStartupMetrics) metrics;
+    }
+
+    /**
+     * Whether the event classes can be loaded, they are compiled for Java 11 while
+     * {@code jdk.jfr} is also available on Java 8 since 8u262.
+     */
+    static boolean isFlightRecorderAvailable(@Nullable ClassLoader classLoader) {
+        if (!ClassUtils.isPresent("jdk.jfr.Event", classLoader)) {
+            return false;
+        }
+        try {
+            Class.forName(FLIGHT_RECORDER_EVENTS_CLASS_NAME, false, classLoader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            logger.warn("Flight Recorder events are disabled, they require Java 11 or later: " + ex);
+            return false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isJfrEnabled() {
+        return jfrEnabled;
+    }
+
+    /**
+     * @return the start time to pass to the record methods, or {@code 0} when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void recordAutowireExcluding(String beanName, long start) {
+        if (!enabled) {
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        record(TimingKind.AUTOWIRE_EXCLUDING, autowireExcludingTimings, beanName, duration);
+        if (jfrEnabled) {
+            LeftoutsFlightRecorderEvents.autowireExcluding(beanName, duration);
+        }
+    }
+
+    public void recordCandidateCreation(String beanName, long start) {
+        if (!enabled) {
+            return;
+        }
+        record(TimingKind.CANDIDATE_CREATION, candidateCreationTimings, beanName, System.nanoTime() - start);
+    }
+
+    public void recordCandidates(int resolved, int excluded) {
+        if (!enabled) {
+            return;
+        }
+        resolvedCandidates.add(resolved);
+        excludedCandidates.add(excluded);
+    }
+
+    public void recordCondition(String annotatedElement, String propertyName, boolean matched, long start) {
+        if (!enabled) {
+            return;
+        }
+        long duration = System.nanoTime() - start;
+        record(TimingKind.CONDITION, conditionTimings, annotatedElement + "#" + propertyName, duration);
+        if (jfrEnabled) {
+            LeftoutsFlightRecorderEvents.propertiesCollectionCondition(annotatedElement, propertyName, matched, duration);
+        }
+    }
+
+    public void recordWebMvcHack(String step, long duration) {
+        if (!enabled) {
+            return;
+        }
+        record(TimingKind.WEB_MVC_HACK, webMvcHackTimings, step, duration);
+        if (jfrEnabled) {
+            LeftoutsFlightRecorderEvents.webMvcHack(step, duration);
+        }
+    }
+
+    private void record(TimingKind kind, Map<String, Timing> timings, String key, long duration) {
+        Timing timing = timings.get(key);
+        if (timing == null) {
+            Timing created = new Timing();
+            timing = timings.putIfAbsent(key, created);
+            if (timing == null) {
+                timing = created;
+                // outside of the map update, listeners may register meters
+                for (TimingListener listener : timingListeners) {
+                    listener.timingAdded(kind, key, timing);
+                }
+            }
+        }
+        timing.record(duration);
+    }
+
+    /**
+     * Notifies the listener of the timings recorded for a new key from now on, the
+     * existing timings are available from the getters.
+     */
+    public void addTimingListener(TimingListener listener) {
+        timingListeners.add(listener);
+    }
+
+    /**
+     * @return the time spent injecting {@code @AutowireExcluding} fields, by bean name
+     */
+    public Map<String, Timing> getAutowireExcludingTimings() {
+        return Collections.unmodifiableMap(autowireExcludingTimings);
+    }
+
+    /**
+     * @return the time spent creating the {@code @AutowireExcluding} candidates that were
+     * not yet created when injected, including their own dependencies, by bean name
+     */
+    public Map<String, Timing> getCandidateCreationTimings() {
+        return Collections.unmodifiableMap(candidateCreationTimings);
+    }
+
+    /**
+     * @return the time spent evaluating {@code @ConditionalOnPropertiesCollection},
+     * by annotated element and property name
+     */
+    public Map<String, Timing> getConditionTimings() {
+        return Collections.unmodifiableMap(conditionTimings);
+    }
+
+    /**
+     * @return the time added by the Web MVC plus Jersey configuration, by step
+     */
+    public Map<String, Timing> getWebMvcHackTimings() {
+        return Collections.unmodifiableMap(webMvcHackTimings);
+    }
+
+    public long getResolvedCandidates() {
+        return resolvedCandidates.sum();
+    }
+
+    public long getExcludedCandidates() {
+        return excludedCandidates.sum();
+    }
+
+    public enum TimingKind {
+        AUTOWIRE_EXCLUDING, CANDIDATE_CREATION, CONDITION, WEB_MVC_HACK
+    }
+
+    @FunctionalInterface
+    public interface TimingListener {
+        void timingAdded(TimingKind kind, String key, Timing timing);
+    }
+
+    public static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalTime = new LongAdder();
+
+        void record(long duration) {
+            count.increment();
+            totalTime.add(duration);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getTotalTimeMillis() {
+            return totalTime.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        long getTotalTimeNanos() {
+            return totalTime.sum();
+        }
+    }
+}
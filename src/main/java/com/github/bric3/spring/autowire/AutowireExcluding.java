@@ -15,4 +15,12 @@ public @interface AutowireExcluding {
     String qualifierToExcludeValue();
 
     Class<?> aClass();
-}
\ No newline at end of file
+
+    /**
+     * Whether to inject a list that resolves the candidates on first access
+     * instead of creating them while the annotated bean is initialized.
+     * The resolved candidates are then memoized. Only for {@code List} or
+     * {@code Collection} fields, an {@code ObjectProvider} is already lazy.
+     */
+    boolean lazy() default false;
+}
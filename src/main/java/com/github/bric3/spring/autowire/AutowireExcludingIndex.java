@@ -0,0 +1,91 @@
+package com.github.bric3.spring.autowire;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the classes declaring {@link AutowireExcluding @AutowireExcluding} fields,
+ * generated at compile time by the {@code AutowireExcludingIndexer} annotation processor.
+ *
+ * <p>When an index is found on the classpath, classes that are not listed, and whose
+ * superclasses are not listed either, are not scanned for fields. As such every module
+ * declaring {@code @AutowireExcluding} fields must then run the annotation processor.
+ * The index can be ignored by setting the {@value #IGNORE_INDEX} system property,
+ * or the property in {@code spring.properties}, to {@code true}.</p>
+ */
+final class AutowireExcludingIndex {
+    static final String INDEX_LOCATION = "META-INF/autowire-excluding.index";
+    static final String IGNORE_INDEX = "leftouts.index.ignore";
+
+    private static final AutowireExcludingIndex NO_INDEX = new AutowireExcludingIndex(null);
+    private static final Map<ClassLoader, AutowireExcludingIndex> cache = new ConcurrentReferenceHashMap<>();
+
+    @Nullable
+    private final Set<String> indexedTypes;
+
+    private AutowireExcludingIndex(@Nullable Set<String> indexedTypes) {
+        this.indexedTypes = indexedTypes;
+    }
+
+    static AutowireExcludingIndex load(@Nullable ClassLoader classLoader) {
+        if (SpringProperties.getFlag(IGNORE_INDEX)) {
+            return NO_INDEX;
+        }
+        ClassLoader classLoaderToUse = classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader();
+        if (classLoaderToUse == null) {
+            return NO_INDEX;
+        }
+        return cache.computeIfAbsent(classLoaderToUse, AutowireExcludingIndex::doLoad);
+    }
+
+    private static AutowireExcludingIndex doLoad(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return NO_INDEX;
+            }
+            Set<String> indexedTypes = new HashSet<>();
+            while (urls.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(urls.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    reader.lines()
+                          .map(String::trim)
+                          .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                          .forEach(indexedTypes::add);
+                }
+            }
+            return new AutowireExcludingIndex(indexedTypes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to load indexes from location [" + INDEX_LOCATION + "]", ex);
+        }
+    }
+
+    /**
+     * Whether the class, or one of its superclasses, may declare
+     * {@link AutowireExcluding @AutowireExcluding} fields.
+     */
+    boolean mayDeclareInjectionPoints(Class<?> clazz) {
+        if (indexedTypes == null) {
+            return true;
+        }
+        for (Class<?> targetClass = clazz; targetClass != null && targetClass != Object.class; targetClass = targetClass.getSuperclass()) {
+            if (indexedTypes.contains(targetClass.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.bric3.spring.autowire;
+
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.lang.Nullable;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * {@link ObjectProvider} injected for {@link AutowireExcluding @AutowireExcluding}
+ * fields, the candidates are resolved on each access, and are already ordered.
+ * The unique candidate, or the primary one, is chosen from the candidate names,
+ * without creating the other candidates.
+ */
+final class CandidatesObjectProvider implements ObjectProvider<Object> {
+    private final Class<?> type;
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final Supplier<List<Object>> candidatesResolver;
+    private final Supplier<List<String>> candidateNamesResolver;
+
+    CandidatesObjectProvider(Class<?> type,
+                             ConfigurableListableBeanFactory beanFactory,
+                             Supplier<List<Object>> candidatesResolver,
+                             Supplier<List<String>> candidateNamesResolver) {
+        this.type = type;
+        this.beanFactory = beanFactory;
+        this.candidatesResolver = candidatesResolver;
+        this.candidateNamesResolver = candidateNamesResolver;
+    }
+
+    @Override
+    public Object getObject() {
+        return beanFactory.getBean(uniqueCandidateName());
+    }
+
+    @Override
+    public Object getObject(Object... args) {
+        return beanFactory.getBean(uniqueCandidateName(), args);
+    }
+
+    @Override
+    @Nullable
+    public Object getIfAvailable() {
+        List<String> candidateNames = candidateNamesResolver.get();
+        if (candidateNames.isEmpty()) {
+            return null;
+        }
+        String candidateName = determineCandidateName(candidateNames);
+        if (candidateName == null) {
+            throw new NoUniqueBeanDefinitionException(type, candidateNames);
+        }
+        return beanFactory.getBean(candidateName);
+    }
+
+    @Override
+    @Nullable
+    public Object getIfUnique() {
+        String candidateName = determineCandidateName(candidateNamesResolver.get());
+        return candidateName == null ? null : beanFactory.getBean(candidateName);
+    }
+
+    private String uniqueCandidateName() {
+        List<String> candidateNames = candidateNamesResolver.get();
+        if (candidateNames.isEmpty()) {
+            throw new NoSuchBeanDefinitionException(type);
+        }
+        String candidateName = determineCandidateName(candidateNames);
+        if (candidateName == null) {
+            throw new NoUniqueBeanDefinitionException(type, candidateNames);
+        }
+        return candidateName;
+    }
+
+    /**
+     * @return the single candidate, or the single primary candidate among several,
+     * {@code null} otherwise
+     */
+    @Nullable
+    private String determineCandidateName(List<String> candidateNames) {
+        if (candidateNames.size() == 1) {
+            return candidateNames.get(0);
+        }
+        String primaryCandidateName = null;
+        for (String candidateName : candidateNames) {
+            if (beanFactory.containsBeanDefinition(candidateName)
+                && beanFactory.getMergedBeanDefinition(candidateName).isPrimary()) {
+                if (primaryCandidateName != null) {
+                    return null;
+                }
+                primaryCandidateName = candidateName;
+            }
+        }
+        return primaryCandidateName;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return candidatesResolver.get().iterator();
+    }
+
+    @Override
+    public Stream<Object> stream() {
+        return candidatesResolver.get().stream();
+    }
+
+    @Override
+    public Stream<Object> orderedStream() {
+        return candidatesResolver.get().stream();
+    }
+}
@@ -1,17 +1,46 @@
 package com.github.bric3.spring.autowire;
 
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics;
+import org.springframework.beans.PropertyValues;
+import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.InjectionMetadata;
+import org.springframework.beans.factory.annotation.InjectionMetadata.InjectedElement;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.annotation.OrderUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link org.springframework.beans.factory.config.BeanPostProcessor} implementation
@@ -19,42 +48,200 @@ import java.util.stream.Collectors;
  *
  * This post-processor only work with field injection.
  *
+ * The annotated fields of a class, including those declared by its superclasses,
+ * are resolved once and cached as {@link InjectionMetadata}, classes without
+ * any annotated field share the {@link InjectionMetadata#EMPTY} marker. When the
+ * compile-time {@link AutowireExcludingIndex index} is present, classes not listed
+ * in it are not scanned at all.
+ *
+ * Candidates are resolved from the bean definitions, the qualifier is looked up on the
+ * bean type or on the {@code @Bean} factory method, so excluded beans are never created.
+ * The candidates are sorted once, according to {@link Ordered}, {@link Order @Order}
+ * on the bean type or the factory method, or {@code @Priority}, then kept in an immutable
+ * random access list. When all the candidates are singletons this list, and the set and
+ * map views derived from it, are shared between the fields with the same type and excluded
+ * qualifier, until a bean definition or a singleton is registered.
+ *
+ * Fields can be declared as a {@code List}, {@code Collection}, {@code Iterable},
+ * {@code Set}, {@code Map} keyed by bean name, an array, or an {@link ObjectProvider}
+ * that resolves the candidates on each access.
+ *
+ * The candidates are created one after another on the thread injecting them. They cannot
+ * be created concurrently, the bean factory creates each singleton while holding its
+ * singleton lock, which this thread already holds. The time spent creating each candidate
+ * is recorded by the {@link LeftoutsStartupMetrics}, so slow initializations, e.g. I/O,
+ * can be identified and moved off the startup path.
+ *
  * Adapted from the answer here https://stackoverflow.com/a/44685101/48136
  */
 @Component
-public class ExcludingAutowiredBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+public class ExcludingAutowiredBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware, EnvironmentAware {
+
+    private final Map<Class<?>, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>(256);
+    private final Map<CandidatesKey, Candidates> candidatesCache = new ConcurrentHashMap<>(64);
 
     private ConfigurableListableBeanFactory beanFactory;
+    private AutowireExcludingIndex index;
+    private LeftoutsStartupMetrics metrics = LeftoutsStartupMetrics.DISABLED;
 
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
-        Arrays.stream(bean.getClass().getDeclaredFields()).forEach(field -> {
-            AutowireExcluding myAutowiredExcludeAnnotation = field.getAnnotation(AutowireExcluding.class);
-            if (myAutowiredExcludeAnnotation == null) {
-                return;
-            }
+        InjectionMetadata metadata = findExcludingMetadata(bean.getClass());
+        if (metadata == InjectionMetadata.EMPTY) {
+            return bean;
+        }
 
-            Collection<Object> beanForInjection =
-                    beanFactory.getBeansOfType(collectionType(myAutowiredExcludeAnnotation))
-                               .values()
-                               .stream()
-                               .filter(beanCandidate -> {
-                                   Qualifier qualifierForBeanCandidate = beanCandidate.getClass().getDeclaredAnnotation(Qualifier.class);
-                                   return qualifierForBeanCandidate == null
-                                          || !Objects.equals(qualifierForBeanCandidate.value(),
-                                                             myAutowiredExcludeAnnotation.qualifierToExcludeValue());
-                               })
-                               .collect(Collectors.toList());
+        long start = metrics.start();
+        try {
+            metadata.inject(bean, beanName, null);
+        } catch (BeanCreationException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new BeanCreationException(beanName, "Injection of @AutowireExcluding dependencies failed", ex);
+        }
+        metrics.recordAutowireExcluding(beanName, start);
 
-            ReflectionUtils.makeAccessible(field);
-            ReflectionUtils.setField(field, bean, beanForInjection);
-        });
+        return bean;
+    }
+
+    private InjectionMetadata findExcludingMetadata(Class<?> clazz) {
+        // Quick check on the concurrent map first, without locking
+        InjectionMetadata metadata = injectionMetadataCache.get(clazz);
+        if (metadata == null) {
+            metadata = injectionMetadataCache.computeIfAbsent(clazz, this::buildExcludingMetadata);
+        }
+        return metadata;
+    }
+
+    private InjectionMetadata buildExcludingMetadata(Class<?> clazz) {
+        if (!AnnotationUtils.isCandidateClass(clazz, AutowireExcluding.class)
+            || !index.mayDeclareInjectionPoints(clazz)) {
+            return InjectionMetadata.EMPTY;
+        }
+
+        List<InjectedElement> elements = new ArrayList<>();
+        Class<?> targetClass = clazz;
+        do {
+            List<InjectedElement> currElements = new ArrayList<>();
+            ReflectionUtils.doWithLocalFields(targetClass, field -> {
+                AutowireExcluding autowireExcluding = field.getAnnotation(AutowireExcluding.class);
+                if (autowireExcluding == null || Modifier.isStatic(field.getModifiers())) {
+                    return;
+                }
+                InjectionKind kind = InjectionKind.of(field);
+                if (autowireExcluding.lazy()) {
+                    // an ObjectProvider already resolves the candidates on each access
+                    Assert.state(kind == InjectionKind.LIST,
+                                 () -> "Lazy @AutowireExcluding field must be declared as a List or a Collection: " + field);
+                }
+                currElements.add(new ExcludingFieldElement(field, autowireExcluding, kind));
+            });
+
+            // superclass fields are injected first
+            elements.addAll(0, currElements);
+            targetClass = targetClass.getSuperclass();
+        } while (targetClass != null && targetClass != Object.class);
+
+        return InjectionMetadata.forElements(elements, clazz);
+    }
+
+    private Candidates resolveCandidates(CandidatesKey candidatesKey) {
+        // Once the configuration is frozen the bean factory returns the same names array
+        // until a bean definition or a singleton gets registered
+        String[] candidateNames = beanFactory.getBeanNamesForType(candidatesKey.type);
+        Candidates cached = candidatesCache.get(candidatesKey);
+        if (cached != null && cached.candidateNames == candidateNames) {
+            return cached;
+        }
+
+        OrderedCandidate[] orderedCandidates = new OrderedCandidate[candidateNames.length];
+        int count = 0;
+        boolean allSingletons = true;
+        for (String candidateName : candidateNames) {
+            // only the beans that are actually injected get created
+            if (!isExcluded(candidateName, candidatesKey.qualifierToExcludeValue)) {
+                Object bean = getCandidate(candidateName);
+                orderedCandidates[count++] = new OrderedCandidate(candidateName, bean, findOrder(candidateName, bean));
+                allSingletons &= beanFactory.isSingleton(candidateName);
+            }
+        }
+        // stable sort, the registration order is kept between candidates of the same order
+        Arrays.sort(orderedCandidates, 0, count, OrderedCandidate.COMPARATOR);
+        String[] beanNames = new String[count];
+        Object[] beans = new Object[count];
+        for (int i = 0; i < count; i++) {
+            beanNames[i] = orderedCandidates[i].beanName;
+            beans[i] = orderedCandidates[i].bean;
+        }
+        Candidates candidates = new Candidates(candidateNames, beanNames, beans);
+        metrics.recordCandidates(count, candidateNames.length - count);
+
+        // prototype or scoped candidates must be created for each injection
+        if (allSingletons && beanFactory.isConfigurationFrozen()) {
+            candidatesCache.put(candidatesKey, candidates);
+        }
+        return candidates;
+    }
 
+    private Object getCandidate(String candidateName) {
+        if (!metrics.isEnabled() || beanFactory.containsSingleton(candidateName)) {
+            return beanFactory.getBean(candidateName);
+        }
+        long start = metrics.start();
+        Object bean = beanFactory.getBean(candidateName);
+        metrics.recordCandidateCreation(candidateName, start);
         return bean;
     }
 
-    private Class<?> collectionType(AutowireExcluding myAutowiredExcludeAnnotation) {
-        return myAutowiredExcludeAnnotation.aClass();
+    /**
+     * @return the names of the candidates that are not excluded, without creating them
+     */
+    private List<String> resolveCandidateNames(CandidatesKey candidatesKey) {
+        List<String> names = new ArrayList<>();
+        for (String candidateName : beanFactory.getBeanNamesForType(candidatesKey.type)) {
+            if (!isExcluded(candidateName, candidatesKey.qualifierToExcludeValue)) {
+                names.add(candidateName);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Same precedence as the {@code AnnotationAwareOrderComparator}, with the
+     * {@link Order @Order} also looked up on the {@code @Bean} factory method.
+     */
+    private int findOrder(String beanName, Object bean) {
+        if (bean instanceof Ordered) {
+            return ((Ordered) bean).getOrder();
+        }
+        Order order = beanFactory.findAnnotationOnBean(beanName, Order.class);
+        if (order != null) {
+            return order.value();
+        }
+        Integer priority = OrderUtils.getOrder(bean.getClass());
+        return priority != null ? priority : Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * Looks up the qualifier of the candidate on its definition, that is on the bean class,
+     * on the {@code @Bean} factory method, or as a qualifier registered on the bean definition.
+     */
+    private boolean isExcluded(String candidateName, String qualifierToExcludeValue) {
+        Qualifier qualifierForBeanCandidate = beanFactory.findAnnotationOnBean(candidateName, Qualifier.class);
+        if (qualifierForBeanCandidate != null) {
+            return Objects.equals(qualifierForBeanCandidate.value(), qualifierToExcludeValue);
+        }
+        if (beanFactory.containsBeanDefinition(candidateName)) {
+            BeanDefinition beanDefinition = beanFactory.getMergedBeanDefinition(candidateName);
+            if (beanDefinition instanceof AbstractBeanDefinition) {
+                AutowireCandidateQualifier qualifier =
+                        ((AbstractBeanDefinition) beanDefinition).getQualifier(Qualifier.class.getName());
+                return qualifier != null
+                       && Objects.equals(qualifier.getAttribute(AutowireCandidateQualifier.VALUE_KEY),
+                                         qualifierToExcludeValue);
+            }
+        }
+        return false;
     }
 
 
@@ -70,5 +257,182 @@ public class ExcludingAutowiredBeanPostProcessor implements BeanPostProcessor, B
                     "AutowiredAnnotationBeanPostProcessor requires a ConfigurableListableBeanFactory: " + beanFactory);
         }
         this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+        this.index = AutowireExcludingIndex.load(this.beanFactory.getBeanClassLoader());
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.metrics = LeftoutsStartupMetrics.get(beanFactory, environment);
+    }
+
+    /**
+     * Injection point of a field annotated with {@link AutowireExcluding @AutowireExcluding}.
+     */
+    private class ExcludingFieldElement extends InjectedElement {
+        private final AutowireExcluding autowireExcluding;
+        private final CandidatesKey candidatesKey;
+
+        private final InjectionKind kind;
+
+        ExcludingFieldElement(Field field, AutowireExcluding autowireExcluding, InjectionKind kind) {
+            super(field, null);
+            this.autowireExcluding = autowireExcluding;
+            this.candidatesKey = new CandidatesKey(autowireExcluding.aClass(), autowireExcluding.qualifierToExcludeValue());
+            this.kind = kind;
+        }
+
+        @Override
+        protected void inject(Object target, @Nullable String requestingBeanName, @Nullable PropertyValues pvs) {
+            Field field = (Field) this.member;
+            ReflectionUtils.makeAccessible(field);
+            ReflectionUtils.setField(field, target, resolveValue(field));
+        }
+
+        private Object resolveValue(Field field) {
+            switch (kind) {
+                case OBJECT_PROVIDER:
+                    return new CandidatesObjectProvider(candidatesKey.type,
+                                                        beanFactory,
+                                                        () -> resolveCandidates(candidatesKey).beans,
+                                                        () -> resolveCandidateNames(candidatesKey));
+                case SET:
+                    return resolveCandidates(candidatesKey).asSet();
+                case MAP:
+                    return resolveCandidates(candidatesKey).asMap();
+                case ARRAY:
+                    // arrays are mutable, each field gets its own copy
+                    return resolveCandidates(candidatesKey).toArray(field.getType().getComponentType());
+                default:
+                    return autowireExcluding.lazy() ?
+                           new LazyCandidateList(() -> resolveCandidates(candidatesKey).beans) :
+                           resolveCandidates(candidatesKey).beans;
+            }
+        }
+    }
+
+    /**
+     * The structure injected in a field, according to its declared type.
+     */
+    private enum InjectionKind {
+        LIST, SET, MAP, ARRAY, OBJECT_PROVIDER;
+
+        static InjectionKind of(Field field) {
+            Class<?> type = field.getType();
+            if (type == ObjectProvider.class) {
+                return OBJECT_PROVIDER;
+            }
+            if (type.isArray()) {
+                return ARRAY;
+            }
+            if (type == Map.class) {
+                Class<?> keyType = ResolvableType.forField(field).asMap().resolveGeneric(0);
+                Assert.state(keyType == null || keyType == String.class,
+                             () -> "@AutowireExcluding map field must be keyed by bean name: " + field);
+                return MAP;
+            }
+            if (type == Set.class) {
+                return SET;
+            }
+            Assert.state(type.isAssignableFrom(List.class),
+                         () -> "@AutowireExcluding field must be declared as a List, a Collection, a Set, " +
+                               "a Map, an array or an ObjectProvider: " + field);
+            return LIST;
+        }
+    }
+
+    private static final class CandidatesKey {
+        private final Class<?> type;
+        private final String qualifierToExcludeValue;
+
+        CandidatesKey(Class<?> type, String qualifierToExcludeValue) {
+            this.type = type;
+            this.qualifierToExcludeValue = qualifierToExcludeValue;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CandidatesKey)) {
+                return false;
+            }
+            CandidatesKey that = (CandidatesKey) other;
+            return type == that.type && qualifierToExcludeValue.equals(that.qualifierToExcludeValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + qualifierToExcludeValue.hashCode();
+        }
+    }
+
+    /**
+     * Immutable, ordered, candidates resolved for the given snapshot of candidate names.
+     */
+    private static final class Candidates {
+        private final String[] candidateNames;
+        private final String[] beanNames;
+        private final Object[] beanArray;
+        private final List<Object> beans;
+        // views created on first use, a racy initialization creates equal views
+        private Set<Object> beanSet;
+        private Map<String, Object> beanMap;
+
+        Candidates(String[] candidateNames, String[] beanNames, Object[] beans) {
+            this.candidateNames = candidateNames;
+            this.beanNames = beanNames;
+            this.beanArray = beans;
+            this.beans = Collections.unmodifiableList(Arrays.asList(beans));
+        }
+
+        Set<Object> asSet() {
+            Set<Object> beanSet = this.beanSet;
+            if (beanSet == null) {
+                beanSet = Collections.unmodifiableSet(new LinkedHashSet<>(beans));
+                this.beanSet = beanSet;
+            }
+            return beanSet;
+        }
+
+        Map<String, Object> asMap() {
+            Map<String, Object> beanMap = this.beanMap;
+            if (beanMap == null) {
+                Map<String, Object> orderedMap = new LinkedHashMap<>((int) (beanNames.length / 0.75f) + 1);
+                for (int i = 0; i < beanNames.length; i++) {
+                    orderedMap.put(beanNames[i], beanArray[i]);
+                }
+                beanMap = Collections.unmodifiableMap(orderedMap);
+                this.beanMap = beanMap;
+            }
+            return beanMap;
+        }
+
+        Object toArray(Class<?> componentType) {
+            Object array = Array.newInstance(componentType, beanArray.length);
+            System.arraycopy(beanArray, 0, array, 0, beanArray.length);
+            return array;
+        }
+    }
+
+    private static final class OrderedCandidate {
+        static final Comparator<OrderedCandidate> COMPARATOR = (left, right) -> {
+            boolean leftPriority = left.bean instanceof PriorityOrdered;
+            boolean rightPriority = right.bean instanceof PriorityOrdered;
+            if (leftPriority != rightPriority) {
+                return leftPriority ? -1 : 1;
+            }
+            return Integer.compare(left.order, right.order);
+        };
+
+        private final String beanName;
+        private final Object bean;
+        private final int order;
+
+        OrderedCandidate(String beanName, Object bean, int order) {
+            this.beanName = beanName;
+            this.bean = bean;
+            this.order = order;
+        }
     }
 }
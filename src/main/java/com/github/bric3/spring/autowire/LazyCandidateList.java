@@ -0,0 +1,49 @@
+package com.github.bric3.spring.autowire;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+/**
+ * Read-only list injected for {@link AutowireExcluding#lazy() lazy} fields,
+ * the candidates are resolved on first access then memoized.
+ */
+final class LazyCandidateList extends AbstractList<Object> implements RandomAccess {
+    private final Supplier<List<Object>> candidatesResolver;
+    private volatile List<Object> candidates;
+
+    LazyCandidateList(Supplier<List<Object>> candidatesResolver) {
+        this.candidatesResolver = candidatesResolver;
+    }
+
+    @Override
+    public Object get(int index) {
+        return candidates().get(index);
+    }
+
+    @Override
+    public int size() {
+        return candidates().size();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return candidates().iterator();
+    }
+
+    private List<Object> candidates() {
+        List<Object> candidates = this.candidates;
+        if (candidates == null) {
+            synchronized (this) {
+                candidates = this.candidates;
+                if (candidates == null) {
+                    candidates = candidatesResolver.get();
+                    this.candidates = candidates;
+                }
+            }
+        }
+        return candidates;
+    }
+}
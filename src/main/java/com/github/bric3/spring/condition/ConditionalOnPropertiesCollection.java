@@ -1,6 +1,7 @@
 package com.github.bric3.spring.condition;
 
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Import;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
@@ -14,8 +15,27 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Target({TYPE, METHOD})
 @Documented
 @Conditional(OnPropertiesCollectionCondition.class)
+@Import(PropertiesCollectionSnapshotRegistrar.class)
 public @interface ConditionalOnPropertiesCollection {
     String name();
 
     String[] subProperties();
+
+    /**
+     * Whether to check the sub-properties by walking the configuration property names
+     * instead of binding the whole collection. This mode does not convert any value and
+     * fits huge collections, it reports the sub-properties missing from the first
+     * incomplete element.
+     */
+    boolean streaming() default false;
+
+    /**
+     * Name of the {@link PropertiesCollection} bean to register with the annotated
+     * configuration class, none by default. The bean is only registered when the
+     * configuration class is not skipped by any of its conditions, it is not supported
+     * on {@code @Bean} methods. The snapshot is bound once and shared with the
+     * condition, consumers can look up elements by index or key instead of
+     * binding the collection again.
+     */
+    String snapshotBeanName() default "";
 }
@@ -1,23 +1,24 @@
 package com.github.bric3.spring.condition;
 
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics;
 import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
-import org.springframework.boot.context.properties.bind.Bindable;
-import org.springframework.boot.context.properties.bind.Binder;
-import org.springframework.boot.context.properties.bind.handler.IgnoreErrorsBindHandler;
 import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.core.Ordered;
-import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
-import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
-import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.springframework.boot.autoconfigure.condition.ConditionMessage.forCondition;
@@ -28,46 +29,77 @@ import static org.springframework.boot.autoconfigure.condition.ConditionOutcome.
 public class OnPropertiesCollectionCondition extends SpringBootCondition {
     @Override
     public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
-        String name = (String) metadata.getAnnotationAttributes(ConditionalOnPropertiesCollection.class.getName())
-                                       .get("name");
-        String[] wantedSubProperties = (String[]) metadata.getAnnotationAttributes(ConditionalOnPropertiesCollection.class.getName())
-                                                          .get("subProperties");
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnPropertiesCollection.class.getName());
+        String name = (String) attributes.get("name");
+        String[] wantedSubProperties = (String[]) attributes.get("subProperties");
+        boolean streaming = (boolean) attributes.get("streaming");
 
-        @SuppressWarnings("unchecked")
-        final Map<String, Map<String, String>> subProperties = (Map<String, Map<String, String>>)
-                Binder.get(context.getEnvironment())
-                      .bind(ConfigurationPropertyName.of(name),
-                            Bindable.of(ResolvableType.forClassWithGenerics(
-                                    Map.class,
-                                    ResolvableType.forClass(String.class),
-                                    ResolvableType.forClassWithGenerics(
-                                            Map.class,
-                                            String.class,
-                                            String.class))),
-                            new IgnoreErrorsBindHandler())
-                      .orElse(Collections.emptyMap());
+        LeftoutsStartupMetrics metrics = LeftoutsStartupMetrics.get(context.getBeanFactory(), context.getEnvironment());
+        long start = metrics.start();
+        ConditionOutcome outcome = streaming ?
+                                   getStreamingMatchOutcome(context, name, wantedSubProperties) :
+                                   getMatchOutcome(context, name, wantedSubProperties);
+        metrics.recordCondition(annotatedElementName(metadata), name, outcome.isMatch(), start);
 
-        if (subProperties.isEmpty()) {
+        // the snapshot bean is registered with the configuration class, see PropertiesCollectionSnapshotRegistrar
+        Assert.state(!(metadata instanceof MethodMetadata) || ((String) attributes.get("snapshotBeanName")).isEmpty(),
+                     () -> "@ConditionalOnPropertiesCollection snapshotBeanName is only supported on configuration classes: "
+                           + annotatedElementName(metadata));
+        return outcome;
+    }
+
+    private ConditionOutcome getStreamingMatchOutcome(ConditionContext context, String name, String[] wantedSubProperties) {
+        return getOutcome(name,
+                          wantedSubProperties,
+                          PropertiesCollectionKeys.findMissingSubProperties(
+                                  ConfigurationPropertySources.get(context.getEnvironment()),
+                                  ConfigurationPropertyName.of(name),
+                                  wantedSubProperties));
+    }
+
+    /**
+     * @param missing the sub-properties missing from an element, or {@code null} if the collection has no element
+     */
+    static ConditionOutcome getOutcome(String name, String[] wantedSubProperties, @Nullable Set<String> missing) {
+        if (missing == null) {
             return noMatch(forCondition(ConditionalOnPropertiesCollection.class)
                                    .didNotFind("property", "properties")
                                    .items(Stream.of(wantedSubProperties)
                                                 .map(p -> format("%s[].%s", name, p))
                                                 .collect(toList())));
         }
+        return missing.isEmpty() ?
+               match(forCondition(ConditionalOnPropertiesCollection.class).foundExactly(name)) :
+               noMatch(forCondition(ConditionalOnPropertiesCollection.class)
+                               .didNotFind("property", "properties")
+                               .items(missing));
+    }
+
+    private ConditionOutcome getMatchOutcome(ConditionContext context, String name, String[] wantedSubProperties) {
+        final Map<String, Map<String, String>> subProperties =
+                PropertiesCollectionBindings.get(context.getBeanFactory())
+                                            .bind(context.getEnvironment(), name);
+
+        if (subProperties.isEmpty()) {
+            return getOutcome(name, wantedSubProperties, null);
+        }
 
-        return subProperties.entrySet()
-                            .stream()
-                            .flatMap(subMap -> {
-                                return Stream.of(wantedSubProperties)
-                                             .filter(wantedSubProperty -> !subMap.getValue().containsKey(wantedSubProperty));
-                            })
-                            .collect(collectingAndThen(toSet(),
-                                                       missing ->
-                                                               missing.isEmpty() ?
-                                                               match(forCondition(ConditionalOnPropertiesCollection.class)
-                                                                             .foundExactly(name)) :
-                                                               noMatch(forCondition(ConditionalOnPropertiesCollection.class)
-                                                                               .didNotFind("property", "properties")
-                                                                               .items(missing))));
+        Set<String> missing = subProperties.values()
+                                           .stream()
+                                           .flatMap(subMap -> Stream.of(wantedSubProperties)
+                                                                    .filter(wantedSubProperty -> !subMap.containsKey(wantedSubProperty)))
+                                           .collect(toSet());
+        return getOutcome(name, wantedSubProperties, missing);
+    }
+
+    private static String annotatedElementName(AnnotatedTypeMetadata metadata) {
+        if (metadata instanceof ClassMetadata) {
+            return ((ClassMetadata) metadata).getClassName();
+        }
+        if (metadata instanceof MethodMetadata) {
+            MethodMetadata methodMetadata = (MethodMetadata) metadata;
+            return methodMetadata.getDeclaringClassName() + "." + methodMetadata.getMethodName();
+        }
+        return metadata.toString();
     }
 }
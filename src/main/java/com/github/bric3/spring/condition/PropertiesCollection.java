@@ -0,0 +1,125 @@
+package com.github.bric3.spring.condition;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a property collection, as validated by
+ * {@link ConditionalOnPropertiesCollection @ConditionalOnPropertiesCollection}.
+ *
+ * <p>Elements are indexed by their key, list indexes being keys as well, and are
+ * looked up in constant time. Sub-property names and values are de-duplicated
+ * within the snapshot, so large tables repeating the same values only store
+ * them once.</p>
+ *
+ * @see ConditionalOnPropertiesCollection#snapshotBeanName()
+ */
+public final class PropertiesCollection {
+    private final String name;
+    private final Map<String, Element> elementsByKey;
+    private final List<Element> elements;
+
+    private PropertiesCollection(String name, Map<String, Element> elementsByKey) {
+        this.name = name;
+        this.elementsByKey = elementsByKey;
+        this.elements = Collections.unmodifiableList(new ArrayList<>(elementsByKey.values()));
+    }
+
+    /**
+     * Snapshots the given bound collection, in its iteration order.
+     */
+    static PropertiesCollection of(String name, Map<String, Map<String, String>> collection) {
+        Map<String, String> canonicalStrings = new HashMap<>();
+        Map<String, Element> elementsByKey = new LinkedHashMap<>(collection.size() * 4 / 3 + 1);
+        collection.forEach((key, subProperties) -> {
+            Map<String, String> values = new LinkedHashMap<>(subProperties.size() * 4 / 3 + 1);
+            subProperties.forEach((subProperty, value) -> values.put(
+                    canonicalStrings.computeIfAbsent(subProperty, s -> s),
+                    value == null ? null : canonicalStrings.computeIfAbsent(value, s -> s)));
+            elementsByKey.put(key, new Element(key, Collections.unmodifiableMap(values)));
+        });
+        return new PropertiesCollection(name, Collections.unmodifiableMap(elementsByKey));
+    }
+
+    /**
+     * @return the name of the collection, e.g. {@code my.routes}
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    /**
+     * @return the element at the given index of an indexed collection, e.g. {@code my.routes[0]}
+     */
+    @Nullable
+    public Element get(int index) {
+        return elementsByKey.get(Integer.toString(index));
+    }
+
+    /**
+     * @return the element with the given key of a map collection, e.g. {@code my.routes[first]}
+     */
+    @Nullable
+    public Element get(String key) {
+        return elementsByKey.get(key);
+    }
+
+    /**
+     * @return the elements, in binding order
+     */
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return name + elementsByKey.values();
+    }
+
+    /**
+     * Element of a property collection.
+     */
+    public static final class Element {
+        private final String key;
+        private final Map<String, String> subProperties;
+
+        private Element(String key, Map<String, String> subProperties) {
+            this.key = key;
+            this.subProperties = subProperties;
+        }
+
+        /**
+         * @return the index or the map key of this element
+         */
+        public String getKey() {
+            return key;
+        }
+
+        @Nullable
+        public String get(String subProperty) {
+            return subProperties.get(subProperty);
+        }
+
+        /**
+         * @return the read-only sub-properties of this element
+         */
+        public Map<String, String> getSubProperties() {
+            return subProperties;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + key + "]" + subProperties;
+        }
+    }
+}
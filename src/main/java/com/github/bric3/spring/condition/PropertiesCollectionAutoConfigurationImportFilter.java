@@ -0,0 +1,146 @@
+package com.github.bric3.spring.condition;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName.Form;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@link AutoConfigurationImportFilter} that evaluates {@link ConditionalOnPropertiesCollection}
+ * from the metadata generated by the {@code PropertiesCollectionConditionIndexer} annotation
+ * processor, so auto-configurations guarded by a missing or incomplete property collection
+ * are rejected before their class is loaded and parsed.
+ *
+ * All the candidates are evaluated in a single pass over the configuration property names,
+ * the distinct collection names are indexed by their first element, so each name is only
+ * checked against the collections that may contain it. Candidates without metadata are
+ * left to the {@link OnPropertiesCollectionCondition}.
+ */
+public class PropertiesCollectionAutoConfigurationImportFilter
+        implements AutoConfigurationImportFilter, BeanClassLoaderAware, BeanFactoryAware, EnvironmentAware {
+    static final String METADATA_LOCATION = "META-INF/leftouts-autoconfigure-metadata.properties";
+    private static final String CONDITION_KEY = ".ConditionalOnPropertiesCollection";
+
+    private static final Log logger = LogFactory.getLog(PropertiesCollectionAutoConfigurationImportFilter.class);
+    private static final OnPropertiesCollectionCondition CONDITION = new OnPropertiesCollectionCondition();
+
+    private ClassLoader beanClassLoader;
+    private BeanFactory beanFactory;
+    private Environment environment;
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean[] match = new boolean[autoConfigurationClasses.length];
+        Arrays.fill(match, true);
+        Properties metadata = loadMetadata(beanClassLoader);
+        if (metadata.isEmpty()) {
+            return match;
+        }
+
+        // ConfigurationPropertyName has a constant hash code, distinct collections are keyed by their uniform form
+        Map<String, PropertiesCollectionKeys> keysByCondition = new HashMap<>();
+        Map<String, List<PropertiesCollectionKeys>> keysByFirstElement = new HashMap<>();
+        PropertiesCollectionKeys[] candidateKeys = new PropertiesCollectionKeys[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            String name = autoConfigurationClasses[i] == null ?
+                          null :
+                          metadata.getProperty(autoConfigurationClasses[i] + CONDITION_KEY);
+            if (name == null) {
+                continue;
+            }
+            String subProperties = metadata.getProperty(autoConfigurationClasses[i] + CONDITION_KEY + ".subProperties", "");
+            ConfigurationPropertyName collectionName = ConfigurationPropertyName.of(name);
+            candidateKeys[i] = keysByCondition.computeIfAbsent(
+                    collectionName + "|" + subProperties,
+                    condition -> {
+                        PropertiesCollectionKeys keys =
+                                new PropertiesCollectionKeys(collectionName,
+                                                             StringUtils.commaDelimitedListToStringArray(subProperties));
+                        keysByFirstElement.computeIfAbsent(collectionName.getElement(0, Form.UNIFORM),
+                                                           element -> new ArrayList<>())
+                                          .add(keys);
+                        return keys;
+                    });
+        }
+        if (keysByCondition.isEmpty()) {
+            return match;
+        }
+
+        PropertiesCollectionKeys.forEachName(ConfigurationPropertySources.get(environment), name -> {
+            if (name.isEmpty()) {
+                return;
+            }
+            List<PropertiesCollectionKeys> keys = keysByFirstElement.get(name.getElement(0, Form.UNIFORM));
+            if (keys != null) {
+                for (PropertiesCollectionKeys collectionKeys : keys) {
+                    collectionKeys.accept(name);
+                }
+            }
+        });
+
+        ConditionEvaluationReport report = ConditionEvaluationReport.find(beanFactory);
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            if (candidateKeys[i] == null) {
+                continue;
+            }
+            ConditionOutcome outcome = OnPropertiesCollectionCondition.getOutcome(
+                    candidateKeys[i].getCollectionName().toString(),
+                    candidateKeys[i].getWantedSubProperties(),
+                    candidateKeys[i].findMissingSubProperties());
+            match[i] = outcome.isMatch();
+            if (!match[i]) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace(autoConfigurationClasses[i] + " did not match due to " + outcome.getMessage());
+                }
+                if (report != null) {
+                    report.recordConditionEvaluation(autoConfigurationClasses[i], CONDITION, outcome);
+                }
+            }
+        }
+        return match;
+    }
+
+    private static Properties loadMetadata(ClassLoader classLoader) {
+        try {
+            return PropertiesLoaderUtils.loadAllProperties(METADATA_LOCATION, classLoader);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Unable to load @ConditionalOnPropertiesCollection metadata from location ["
+                                               + METADATA_LOCATION + "]", ex);
+        }
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.beanClassLoader = classLoader;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.bric3.spring.condition;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.handler.IgnoreErrorsBindHandler;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.lang.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Memoizes the property collections bound by {@link OnPropertiesCollectionCondition},
+ * as the same collection is usually guarding several configurations, and each
+ * configuration condition is evaluated more than once.
+ *
+ * <p>A single instance is registered as a singleton named {@value #BEAN_NAME} in the
+ * bean factory. Bindings are memoized per environment and property name, they are
+ * discarded when a property source is added, removed or replaced in the environment
+ * {@link MutablePropertySources}. Changes within a property source are not tracked.</p>
+ */
+public final class PropertiesCollectionBindings {
+    public static final String BEAN_NAME = "propertiesCollectionBindings";
+
+    private static final Bindable<Map<String, Map<String, String>>> PROPERTIES_COLLECTION =
+            Bindable.of(ResolvableType.forClassWithGenerics(Map.class,
+                                                            ResolvableType.forClass(String.class),
+                                                            ResolvableType.forClassWithGenerics(Map.class,
+                                                                                                String.class,
+                                                                                                String.class)));
+
+    private final Map<String, Map<String, Map<String, String>>> bindings = new HashMap<>();
+    private final Map<String, PropertiesCollection> snapshots = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private Environment environment;
+    private PropertySource<?>[] propertySources;
+
+    /**
+     * Returns the bindings registered in the given bean factory, registering them if needed.
+     */
+    public static PropertiesCollectionBindings get(@Nullable ConfigurableListableBeanFactory beanFactory) {
+        if (beanFactory == null) {
+            return new PropertiesCollectionBindings();
+        }
+        Object bindings = beanFactory.getSingleton(BEAN_NAME);
+        if (bindings == null) {
+            synchronized (beanFactory.getSingletonMutex()) {
+                bindings = beanFactory.getSingleton(BEAN_NAME);
+                if (bindings == null) {
+                    bindings = new PropertiesCollectionBindings();
+                    beanFactory.registerSingleton(BEAN_NAME, bindings);
+                }
+            }
+        }
+        return (PropertiesCollectionBindings) bindings;
+    }
+
+    /**
+     * @return the read-only collection bound under the given name, empty if absent
+     */
+    public synchronized Map<String, Map<String, String>> bind(Environment environment, String name) {
+        if (!isCurrent(environment)) {
+            bindings.clear();
+            snapshots.clear();
+            this.environment = environment;
+            this.propertySources = environment instanceof ConfigurableEnvironment ?
+                                   ((ConfigurableEnvironment) environment).getPropertySources()
+                                                                          .stream()
+                                                                          .toArray(PropertySource<?>[]::new) :
+                                   null;
+        }
+
+        Map<String, Map<String, String>> bound = bindings.get(name);
+        if (bound != null) {
+            hits.increment();
+            return bound;
+        }
+        misses.increment();
+        bound = Collections.unmodifiableMap(Binder.get(environment)
+                                                  .bind(ConfigurationPropertyName.of(name),
+                                                        PROPERTIES_COLLECTION,
+                                                        new IgnoreErrorsBindHandler())
+                                                  .orElse(Collections.emptyMap()));
+        // only environments exposing their property sources can be tracked
+        if (propertySources != null) {
+            bindings.put(name, bound);
+        }
+        return bound;
+    }
+
+    /**
+     * @return the immutable snapshot of the collection bound under the given name
+     * @see #bind(Environment, String)
+     */
+    public synchronized PropertiesCollection snapshot(Environment environment, String name) {
+        Map<String, Map<String, String>> bound = bind(environment, name);
+        PropertiesCollection snapshot = snapshots.get(name);
+        if (snapshot == null) {
+            snapshot = PropertiesCollection.of(name, bound);
+            if (propertySources != null) {
+                snapshots.put(name, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean isCurrent(Environment environment) {
+        if (environment != this.environment || propertySources == null) {
+            return false;
+        }
+        MutablePropertySources currentPropertySources = ((ConfigurableEnvironment) environment).getPropertySources();
+        if (currentPropertySources.size() != propertySources.length) {
+            return false;
+        }
+        int i = 0;
+        for (PropertySource<?> propertySource : currentPropertySources) {
+            if (propertySource != propertySources[i++]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.bric3.spring.condition;
+
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName.Form;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.IterableConfigurationPropertySource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Checks the sub-properties of a property collection by walking the configuration
+ * property names, without binding nor converting any value.
+ *
+ * <p>Elements and sub-properties are identified like the {@code Binder} does when
+ * binding a {@code Map<String, Map<String, String>>}: the collection name is relaxed,
+ * elements are the index or map key following it, and the remaining elements of a
+ * name, in their original form, make the sub-property key.</p>
+ */
+final class PropertiesCollectionKeys {
+    private final ConfigurationPropertyName collectionName;
+    private final String[] wantedSubProperties;
+    private final long allFound;
+    private final Map<String, long[]> foundByElement = new LinkedHashMap<>();
+
+    PropertiesCollectionKeys(ConfigurationPropertyName collectionName, String[] wantedSubProperties) {
+        Assert.isTrue(wantedSubProperties.length <= Long.SIZE,
+                      () -> "At most " + Long.SIZE + " sub-properties are supported: " + collectionName);
+        this.collectionName = collectionName;
+        this.wantedSubProperties = wantedSubProperties;
+        this.allFound = wantedSubProperties.length == Long.SIZE ? -1L : (1L << wantedSubProperties.length) - 1;
+    }
+
+    ConfigurationPropertyName getCollectionName() {
+        return collectionName;
+    }
+
+    String[] getWantedSubProperties() {
+        return wantedSubProperties;
+    }
+
+    /**
+     * Records the given name if it is a sub-property of an element of the collection.
+     */
+    void accept(ConfigurationPropertyName name) {
+        int elementIndex = collectionName.getNumberOfElements();
+        if (name.getNumberOfElements() < elementIndex + 2 || !collectionName.isAncestorOf(name)) {
+            return;
+        }
+        long[] found = foundByElement.computeIfAbsent(name.getElement(elementIndex, Form.ORIGINAL),
+                                                      element -> new long[1]);
+        for (int i = 0; i < wantedSubProperties.length; i++) {
+            if (isSubProperty(name, elementIndex + 1, wantedSubProperties[i])) {
+                found[0] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * @return the sub-properties missing from the first incomplete element, an empty
+     * set if all elements are complete, or {@code null} if the collection has no element
+     */
+    @Nullable
+    Set<String> findMissingSubProperties() {
+        if (foundByElement.isEmpty()) {
+            return null;
+        }
+        for (long[] found : foundByElement.values()) {
+            if (found[0] != allFound) {
+                Set<String> missing = new LinkedHashSet<>();
+                for (int i = 0; i < wantedSubProperties.length; i++) {
+                    if ((found[0] & 1L << i) == 0) {
+                        missing.add(wantedSubProperties[i]);
+                    }
+                }
+                return missing;
+            }
+        }
+        return Collections.emptySet();
+    }
+
+    /**
+     * @see #findMissingSubProperties()
+     */
+    @Nullable
+    static Set<String> findMissingSubProperties(Iterable<ConfigurationPropertySource> sources,
+                                                ConfigurationPropertyName collectionName,
+                                                String[] wantedSubProperties) {
+        PropertiesCollectionKeys keys = new PropertiesCollectionKeys(collectionName, wantedSubProperties);
+        forEachName(sources, keys::accept);
+        return keys.findMissingSubProperties();
+    }
+
+    static void forEachName(Iterable<ConfigurationPropertySource> sources, Consumer<ConfigurationPropertyName> action) {
+        for (ConfigurationPropertySource source : sources) {
+            // like the binder, map keys can only be discovered from iterable sources
+            if (source instanceof IterableConfigurationPropertySource) {
+                ((IterableConfigurationPropertySource) source).forEach(action);
+            }
+        }
+    }
+
+    private static boolean isSubProperty(ConfigurationPropertyName name, int subPropertyIndex, String subProperty) {
+        if (subProperty.indexOf('.') < 0) {
+            return name.getNumberOfElements() == subPropertyIndex + 1
+                   && subProperty.equals(name.getElement(subPropertyIndex, Form.ORIGINAL));
+        }
+        StringBuilder key = new StringBuilder(subProperty.length());
+        for (int i = subPropertyIndex; i < name.getNumberOfElements(); i++) {
+            if (key.length() != 0) {
+                key.append('.');
+            }
+            key.append(name.getElement(i, Form.ORIGINAL));
+        }
+        return subProperty.contentEquals(key);
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.bric3.spring.condition;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+
+import java.util.List;
+
+/**
+ * Registers the {@link ConditionalOnPropertiesCollection#snapshotBeanName() snapshot}
+ * beans of a configuration class. Registrars only run for the configuration classes
+ * that are not skipped, that is once all their conditions matched.
+ *
+ * <p>The snapshots are created from the bindings memoized by the condition.</p>
+ */
+final class PropertiesCollectionSnapshotRegistrar implements ImportBeanDefinitionRegistrar, BeanFactoryAware, EnvironmentAware {
+    private static final String SNAPSHOT_ATTRIBUTE = PropertiesCollection.class.getName();
+
+    private ConfigurableListableBeanFactory beanFactory;
+    private Environment environment;
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+        // direct and meta annotations
+        MultiValueMap<String, Object> attributes =
+                importingClassMetadata.getAllAnnotationAttributes(ConditionalOnPropertiesCollection.class.getName());
+        if (attributes == null) {
+            return;
+        }
+        List<Object> names = attributes.get("name");
+        List<Object> snapshotBeanNames = attributes.get("snapshotBeanName");
+        for (int i = 0; i < names.size(); i++) {
+            String snapshotBeanName = (String) snapshotBeanNames.get(i);
+            if (!snapshotBeanName.isEmpty()) {
+                registerSnapshot(registry, (String) names.get(i), snapshotBeanName);
+            }
+        }
+    }
+
+    private void registerSnapshot(BeanDefinitionRegistry registry, String name, String snapshotBeanName) {
+        if (registry.containsBeanDefinition(snapshotBeanName)) {
+            BeanDefinition registered = registry.getBeanDefinition(snapshotBeanName);
+            Assert.state(name.equals(registered.getAttribute(SNAPSHOT_ATTRIBUTE)),
+                         () -> "Bean '" + snapshotBeanName + "' is already registered and is not a snapshot of '"
+                               + name + "': " + registered);
+            return;
+        }
+        RootBeanDefinition snapshot = new RootBeanDefinition(
+                PropertiesCollection.class,
+                () -> PropertiesCollectionBindings.get(beanFactory).snapshot(environment, name));
+        snapshot.setAttribute(SNAPSHOT_ATTRIBUTE, name);
+        registry.registerBeanDefinition(snapshotBeanName, snapshot);
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        Assert.isInstanceOf(ConfigurableListableBeanFactory.class, beanFactory);
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+}
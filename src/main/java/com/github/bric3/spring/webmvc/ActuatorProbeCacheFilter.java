@@ -0,0 +1,174 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servlet filter that serves the responses of high frequency probes, e.g. the
+ * {@code /actuator/health} or {@code /actuator/prometheus} endpoints, from a cache
+ * refreshed every TTL, so probes do not go through the servlet routing, the
+ * {@code DispatcherServlet} and the content negotiation on every request.
+ *
+ * <p>Only {@code GET} and {@code HEAD} requests without query string nor credentials
+ * are served, the status, content type and body of the {@code GET} responses are cached
+ * by path and {@code Accept} header. The probe endpoints are expected to respond synchronously.
+ * As the requests having credentials are not cached, this filter should come after
+ * the security filters that authenticate requests.</p>
+ */
+public class ActuatorProbeCacheFilter extends GenericFilterBean {
+    /**
+     * Bounds the cache if probes send many different {@code Accept} headers.
+     */
+    private static final int MAX_CACHED_RESPONSES = 64;
+
+    private final String[] paths;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<ProbeKey, CachedResponse> responses = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ActuatorProbeCacheFilter(Collection<String> paths, long ttlNanos) {
+        this.paths = paths.toArray(new String[0]);
+        this.ttlNanos = ttlNanos;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        String path = probePath(httpRequest);
+        if (path == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        ProbeKey key = new ProbeKey(path, httpRequest.getHeader(HttpHeaders.ACCEPT));
+        CachedResponse cached = responses.get(key);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.cachedAt < ttlNanos) {
+            hits.increment();
+            cached.writeTo(httpRequest, httpResponse);
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(httpResponse);
+        chain.doFilter(request, responseWrapper);
+        // HEAD responses have no body to serve to GET requests
+        if ("GET".equals(httpRequest.getMethod())
+            && (responses.size() < MAX_CACHED_RESPONSES || responses.containsKey(key))) {
+            responses.put(key, new CachedResponse(responseWrapper.getStatus(),
+                                                  responseWrapper.getContentType(),
+                                                  responseWrapper.getContentAsByteArray(),
+                                                  now));
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    /**
+     * @return the configured path of the probe, or {@code null} if the request is not a cacheable probe
+     */
+    @Nullable
+    private String probePath(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!("GET".equals(method) || "HEAD".equals(method))
+            || request.getQueryString() != null
+            || request.getHeader(HttpHeaders.AUTHORIZATION) != null
+            || request.getUserPrincipal() != null) {
+            return null;
+        }
+        String requestUri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        for (String path : paths) {
+            if (requestUri.length() == contextPath.length() + path.length()
+                && requestUri.startsWith(contextPath)
+                && requestUri.endsWith(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of probes served from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of probes dispatched to the endpoint
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static final class ProbeKey {
+        private final String path;
+        @Nullable
+        private final String accept;
+
+        ProbeKey(String path, @Nullable String accept) {
+            this.path = path;
+            this.accept = accept;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ProbeKey)) {
+                return false;
+            }
+            ProbeKey that = (ProbeKey) other;
+            return path.equals(that.path) && Objects.equals(accept, that.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * path.hashCode() + Objects.hashCode(accept);
+        }
+    }
+
+    private static final class CachedResponse {
+        private final int status;
+        @Nullable
+        private final String contentType;
+        private final byte[] body;
+        private final long cachedAt;
+
+        CachedResponse(int status, @Nullable String contentType, byte[] body, long cachedAt) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.cachedAt = cachedAt;
+        }
+
+        void writeTo(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            if (!"HEAD".equals(request.getMethod())) {
+                response.getOutputStream().write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link RequestMappingHandlerMapping} that caches the handler method resolved for
+ * a lookup path and an HTTP method, in a bounded {@link ConcurrentLruCache}.
+ *
+ * <p>Only the resolutions depending on the path and the HTTP method alone are cached,
+ * that is when every mapping matching them has no params, headers, consumes, produces
+ * or custom condition. Other resolutions are remembered as not cacheable and go through
+ * the regular lookup. On a cache hit the matched mapping is applied to the request again,
+ * so the URI template variables are extracted from the actual path.</p>
+ *
+ * <p>The cache is cleared when a mapping is registered or unregistered.</p>
+ */
+public class CachingRequestMappingHandlerMapping extends RequestMappingHandlerMapping {
+    private static final String MATCHED_MAPPING_ATTRIBUTE = CachingRequestMappingHandlerMapping.class.getName() + ".matchedMapping";
+    private static final CachedMatch NOT_CACHEABLE = new CachedMatch(null, null);
+
+    private final ConcurrentLruCache<CacheKey, CachedMatch> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param expireAfterAccessNanos time after the last access an entry expires, never if zero or negative
+     */
+    public CachingRequestMappingHandlerMapping(int maxSize, long expireAfterAccessNanos) {
+        this.cache = new ConcurrentLruCache<>(maxSize, expireAfterAccessNanos);
+    }
+
+    @Override
+    protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return super.lookupHandlerMethod(lookupPath, request);
+        }
+
+        CacheKey key = new CacheKey(lookupPath, request.getMethod());
+        CachedMatch cached = cache.get(key);
+        if (cached == NOT_CACHEABLE) {
+            misses.increment();
+            return super.lookupHandlerMethod(lookupPath, request);
+        }
+        if (cached != null) {
+            hits.increment();
+            request.setAttribute(BEST_MATCHING_HANDLER_ATTRIBUTE, cached.handlerMethod);
+            super.handleMatch(cached.mapping, lookupPath, request);
+            return cached.handlerMethod;
+        }
+
+        misses.increment();
+        HandlerMethod handlerMethod = super.lookupHandlerMethod(lookupPath, request);
+        RequestMappingInfo matchedMapping = (RequestMappingInfo) request.getAttribute(MATCHED_MAPPING_ATTRIBUTE);
+        request.removeAttribute(MATCHED_MAPPING_ATTRIBUTE);
+        if (handlerMethod != null && matchedMapping != null) {
+            cache.put(key, isCacheable(request) ? new CachedMatch(matchedMapping, handlerMethod) : NOT_CACHEABLE);
+        }
+        return handlerMethod;
+    }
+
+    @Override
+    protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
+        request.setAttribute(MATCHED_MAPPING_ATTRIBUTE, info);
+        super.handleMatch(info, lookupPath, request);
+    }
+
+    /**
+     * Whether all the mappings matching the request path and method only have pattern and method conditions.
+     */
+    private boolean isCacheable(HttpServletRequest request) {
+        for (RequestMappingInfo info : getHandlerMethods().keySet()) {
+            if (info.getPatternsCondition().getMatchingCondition(request) != null
+                && info.getMethodsCondition().getMatchingCondition(request) != null
+                && !isPatternOnly(info)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPatternOnly(RequestMappingInfo info) {
+        return info.getParamsCondition().isEmpty()
+               && info.getHeadersCondition().isEmpty()
+               && info.getConsumesCondition().isEmpty()
+               && info.getProducesCondition().isEmpty()
+               && info.getCustomCondition() == null;
+    }
+
+    @Override
+    public void registerMapping(RequestMappingInfo mapping, Object handler, Method method) {
+        super.registerMapping(mapping, handler, method);
+        cache.clear();
+    }
+
+    @Override
+    public void unregisterMapping(RequestMappingInfo mapping) {
+        super.unregisterMapping(mapping);
+        cache.clear();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * @return the number of lookups served from the cache
+     */
+    public long getCacheHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that went through the regular lookup, including those not cacheable
+     */
+    public long getCacheMisses() {
+        return misses.sum();
+    }
+
+    public long getCacheEvictions() {
+        return cache.getEvictions();
+    }
+
+    private static final class CacheKey {
+        private final String lookupPath;
+        private final String method;
+
+        CacheKey(String lookupPath, String method) {
+            this.lookupPath = lookupPath;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) other;
+            return lookupPath.equals(that.lookupPath) && method.equals(that.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * lookupPath.hashCode() + method.hashCode();
+        }
+    }
+
+    private static final class CachedMatch {
+        @Nullable
+        private final RequestMappingInfo mapping;
+        @Nullable
+        private final HandlerMethod handlerMethod;
+
+        CachedMatch(@Nullable RequestMappingInfo mapping, @Nullable HandlerMethod handlerMethod) {
+            this.mapping = mapping;
+            this.handlerMethod = handlerMethod;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrent cache evicting the least recently accessed entries.
+ *
+ * <p>Reads are lock free, they only record the access time of the entry, the eviction
+ * scans the entries when an insertion exceeds the maximum size. This suits caches of
+ * a few hundred hot entries, where insertions are much less frequent than reads.
+ * Entries can also expire when they are not accessed for a given time.</p>
+ */
+final class ConcurrentLruCache<K, V> {
+    private final int maxSize;
+    private final long expireAfterAccessNanos;
+    private final ConcurrentHashMap<K, Entry<V>> entries;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param expireAfterAccessNanos time after the last access an entry expires, never if zero or negative
+     */
+    ConcurrentLruCache(int maxSize, long expireAfterAccessNanos) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache max size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024) * 4 / 3 + 1);
+    }
+
+    @Nullable
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (expireAfterAccessNanos > 0 && now - entry.lastAccess > expireAfterAccessNanos) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            return null;
+        }
+        entry.lastAccess = now;
+        return entry.value;
+    }
+
+    void put(K key, V value) {
+        entries.put(key, new Entry<>(value, System.nanoTime()));
+        if (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() {
+        while (entries.size() > maxSize) {
+            Map.Entry<K, Entry<V>> eldest = null;
+            for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (eldest == null || candidate.getValue().lastAccess - eldest.getValue().lastAccess < 0) {
+                    eldest = candidate;
+                }
+            }
+            if (eldest != null && entries.remove(eldest.getKey(), eldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.github.bric3.spring.webmvc;
+
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.Shard;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+
+import javax.servlet.MultipartConfigElement;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration.DEFAULT_DISPATCHER_SERVLET_BEAN_NAME;
+
+/**
+ * Registers one `DispatcherServlet` per shard, mapped on the url-mappings of the
+ * shard, with its own child application context holding the controllers of the
+ * shard base packages. Each servlet thus only searches the mappings of its shard.
+ *
+ * <p>The child contexts import the Web MVC configuration, they share the beans of
+ * the application context, including the {@code WebMvcConfigurer}s. Handler mappings
+ * of the application context with the same bean name, like the
+ * {@code requestMappingHandlerMapping}, are shadowed by those of the shard. The shard
+ * base packages should not be scanned by the application context.</p>
+ *
+ * <p>The child contexts are refreshed once the singletons of the application context
+ * are instantiated, concurrently if requested, a failure is reported for the first
+ * failing shard in declaration order. Lazy shards are refreshed when their servlet
+ * is initialized, i.e. on the first request.</p>
+ */
+final class DispatcherServletShards implements ServletContextInitializer, SmartInitializingSingleton, DisposableBean {
+    private final List<DispatcherServletShard> shards = new ArrayList<>();
+    private final boolean parallelInitialization;
+    private final WebMvcProperties webMvcProperties;
+    @Nullable
+    private final MultipartConfigElement multipartConfig;
+    private final LeftoutsStartupMetrics metrics;
+
+    @Nullable
+    private ServletContext servletContext;
+
+    DispatcherServletShards(ApplicationContext parent,
+                            Map<String, Shard> shards,
+                            boolean parallelInitialization,
+                            WebMvcProperties webMvcProperties,
+                            @Nullable MultipartConfigElement multipartConfig,
+                            LeftoutsStartupMetrics metrics) {
+        this.parallelInitialization = parallelInitialization;
+        this.webMvcProperties = webMvcProperties;
+        this.multipartConfig = multipartConfig;
+        this.metrics = metrics;
+        shards.forEach((name, shard) -> this.shards.add(new DispatcherServletShard(parent, name, shard)));
+    }
+
+    @Override
+    public void onStartup(ServletContext servletContext) throws ServletException {
+        this.servletContext = servletContext;
+        for (DispatcherServletShard shard : shards) {
+            ServletRegistrationBean<DispatcherServlet> registration =
+                    new ServletRegistrationBean<>(shard.dispatcherServlet, StringUtils.toStringArray(shard.urlMappings));
+            registration.setName(shard.servletName);
+            registration.setLoadOnStartup(shard.lazyInit ? -1 : webMvcProperties.getServlet().getLoadOnStartup());
+            if (multipartConfig != null) {
+                registration.setMultipartConfig(multipartConfig);
+            }
+            registration.onStartup(servletContext);
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Assert.state(servletContext != null, "The dispatcher servlet shards are not registered");
+        refresh(servletContext);
+    }
+
+    void refresh(ServletContext servletContext) {
+        List<DispatcherServletShard> eagerShards = new ArrayList<>();
+        for (DispatcherServletShard shard : shards) {
+            if (!shard.lazyInit) {
+                eagerShards.add(shard);
+            }
+        }
+        if (!parallelInitialization || eagerShards.size() < 2) {
+            eagerShards.forEach(shard -> refresh(shard, servletContext));
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(eagerShards.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<?>> refreshes = new ArrayList<>(eagerShards.size());
+            eagerShards.forEach(shard -> refreshes.add(executor.submit(() -> refresh(shard, servletContext))));
+            for (Future<?> refresh : refreshes) {
+                try {
+                    refresh.get();
+                } catch (ExecutionException ex) {
+                    refreshes.forEach(other -> other.cancel(true));
+                    throw ex.getCause() instanceof RuntimeException ?
+                          (RuntimeException) ex.getCause() :
+                          new ApplicationContextException("Failed to refresh a dispatcher servlet shard", ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new ApplicationContextException("Interrupted while refreshing the dispatcher servlet shards", ex);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void refresh(DispatcherServletShard shard, ServletContext servletContext) {
+        long start = System.nanoTime();
+        shard.context.setServletContext(servletContext);
+        try {
+            shard.context.refresh();
+        } catch (RuntimeException ex) {
+            throw new ApplicationContextException("Failed to refresh the '" + shard.servletName + "' context", ex);
+        }
+        metrics.recordWebMvcHack("shard:" + shard.servletName, System.nanoTime() - start);
+    }
+
+    @Override
+    public void destroy() {
+        // the servlets do not close the contexts they were given
+        shards.forEach(shard -> shard.context.close());
+    }
+
+    List<DispatcherServletShard> getShards() {
+        return shards;
+    }
+
+    final class DispatcherServletShard {
+        final String servletName;
+        final List<String> urlMappings;
+        final boolean lazyInit;
+        final AnnotationConfigWebApplicationContext context;
+        final DispatcherServlet dispatcherServlet;
+
+        DispatcherServletShard(ApplicationContext parent, String name, Shard shard) {
+            Assert.notEmpty(shard.getUrlMappings(), () -> "The '" + name + "' shard has no url-mappings");
+            Assert.notEmpty(shard.getBasePackages(), () -> "The '" + name + "' shard has no base packages");
+            this.servletName = DEFAULT_DISPATCHER_SERVLET_BEAN_NAME + "-" + name;
+            this.urlMappings = new ArrayList<>(shard.getUrlMappings());
+            this.lazyInit = shard.isLazyInit();
+
+            this.context = new AnnotationConfigWebApplicationContext();
+            context.setParent(parent);
+            context.setId(parent.getId() + ":" + servletName);
+            context.register(DelegatingWebMvcConfiguration.class);
+            context.scan(StringUtils.toStringArray(shard.getBasePackages()));
+
+            this.dispatcherServlet = new DispatcherServlet(context);
+            dispatcherServlet.setDispatchOptionsRequest(webMvcProperties.isDispatchOptionsRequest());
+            dispatcherServlet.setDispatchTraceRequest(webMvcProperties.isDispatchTraceRequest());
+            dispatcherServlet.setThrowExceptionIfNoHandlerFound(webMvcProperties.isThrowExceptionIfNoHandlerFound());
+            dispatcherServlet.setPublishEvents(webMvcProperties.isPublishRequestHandledEvents());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.endpoint.web.servlet.AbstractWebMvcEndpointHandlerMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reflection free alternative to the patching of the private {@code builderConfig} of
+ * the actuator endpoint mappings, e.g. for native images.
+ *
+ * <p>Once an endpoint mapping is initialized, each of its mappings is registered again
+ * with patterns matched on the full path by the {@link FullPathUrlPathHelper} and the
+ * {@link PrecompiledPathMatcher}, with the same suffix and trailing slash options as
+ * the actuator, i.e. the defaults of its static builder configuration. Only the
+ * {@code match(request, pattern)} method, used by request matchers, keeps the
+ * default path resolution.</p>
+ */
+final class EndpointHandlerMappingPostProcessor implements BeanPostProcessor {
+    // only the path helper and matcher of the actuator builder configuration are changed
+    private static final RequestMappingInfo.BuilderConfiguration ACTUATOR_DEFAULTS = new RequestMappingInfo.BuilderConfiguration();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof AbstractWebMvcEndpointHandlerMapping) {
+            useFullPath((AbstractWebMvcEndpointHandlerMapping) bean);
+        }
+        return bean;
+    }
+
+    static void useFullPath(AbstractWebMvcEndpointHandlerMapping handlerMapping) {
+        handlerMapping.setUrlPathHelper(FullPathUrlPathHelper.INSTANCE);
+        handlerMapping.setPathMatcher(PrecompiledPathMatcher.INSTANCE);
+
+        Map<RequestMappingInfo, HandlerMethod> handlerMethods = new LinkedHashMap<>(handlerMapping.getHandlerMethods());
+        handlerMethods.forEach((mapping, handlerMethod) -> {
+            handlerMapping.unregisterMapping(mapping);
+            // the handler method is created again by the mapping, e.g. as a WebMvcEndpointHandlerMethod
+            handlerMapping.registerMapping(withFullPathPatterns(mapping),
+                                           handlerMethod.getBean(),
+                                           handlerMethod.getMethod());
+        });
+    }
+
+    private static RequestMappingInfo withFullPathPatterns(RequestMappingInfo mapping) {
+        PatternsRequestCondition patterns = new PatternsRequestCondition(
+                mapping.getPatternsCondition().getPatterns().toArray(new String[0]),
+                FullPathUrlPathHelper.INSTANCE,
+                PrecompiledPathMatcher.INSTANCE,
+                ACTUATOR_DEFAULTS.useSuffixPatternMatch(),
+                ACTUATOR_DEFAULTS.useTrailingSlashMatch());
+        return new RequestMappingInfo(mapping.getName(),
+                                      patterns,
+                                      mapping.getMethodsCondition(),
+                                      mapping.getParamsCondition(),
+                                      mapping.getHeadersCondition(),
+                                      mapping.getConsumesCondition(),
+                                      mapping.getProducesCondition(),
+                                      mapping.getCustomCondition());
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Shared {@link UrlPathHelper} that <i>always uses the full path</i> and resolves the
+ * lookup path once per request, the decoded path is stored in a request attribute
+ * and reused by every handler mapping consulted during the dispatch.
+ *
+ * <p>The stored path is only reused for the same request URI, so it is resolved again
+ * after a forward or within an include. As the {@link #INSTANCE} is shared, its
+ * configuration cannot be changed.</p>
+ */
+final class FullPathUrlPathHelper extends UrlPathHelper {
+    static final FullPathUrlPathHelper INSTANCE = new FullPathUrlPathHelper();
+
+    static final String LOOKUP_PATH_ATTRIBUTE = FullPathUrlPathHelper.class.getName() + ".lookupPath";
+
+    private final boolean readOnly;
+
+    private FullPathUrlPathHelper() {
+        setAlwaysUseFullPath(true);
+        this.readOnly = true;
+    }
+
+    @Override
+    public String getLookupPathForRequest(HttpServletRequest request) {
+        String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+        if (requestUri == null) {
+            requestUri = request.getRequestURI();
+        }
+
+        Object resolved = request.getAttribute(LOOKUP_PATH_ATTRIBUTE);
+        if (resolved instanceof ResolvedLookupPath && ((ResolvedLookupPath) resolved).requestUri.equals(requestUri)) {
+            return ((ResolvedLookupPath) resolved).lookupPath;
+        }
+        String lookupPath = super.getLookupPathForRequest(request);
+        request.setAttribute(LOOKUP_PATH_ATTRIBUTE, new ResolvedLookupPath(requestUri, lookupPath));
+        return lookupPath;
+    }
+
+    @Override
+    public void setAlwaysUseFullPath(boolean alwaysUseFullPath) {
+        checkReadOnly();
+        super.setAlwaysUseFullPath(alwaysUseFullPath);
+    }
+
+    @Override
+    public void setUrlDecode(boolean urlDecode) {
+        checkReadOnly();
+        super.setUrlDecode(urlDecode);
+    }
+
+    @Override
+    public void setRemoveSemicolonContent(boolean removeSemicolonContent) {
+        checkReadOnly();
+        super.setRemoveSemicolonContent(removeSemicolonContent);
+    }
+
+    @Override
+    public void setDefaultEncoding(String defaultEncoding) {
+        checkReadOnly();
+        super.setDefaultEncoding(defaultEncoding);
+    }
+
+    private void checkReadOnly() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("The shared full path UrlPathHelper cannot be modified");
+        }
+    }
+
+    private static final class ResolvedLookupPath {
+        private final String requestUri;
+        private final String lookupPath;
+
+        ResolvedLookupPath(String requestUri, String lookupPath) {
+            this.requestUri = requestUri;
+            this.lookupPath = lookupPath;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.bric3.spring.webmvc;
+
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.AsyncExecution;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.RejectionPolicy;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Configures the bounded executor running the {@code Callable} handlers of the
+ * {@code DispatcherServlet}, so long-running MVC handlers release the container
+ * threads shared with Jersey.
+ *
+ * <p>The executor is owned by this configurer rather than exposed as a bean, so the
+ * application {@code TaskExecutor} auto-configuration does not back off. When virtual
+ * threads are requested and available, the pool threads are virtual threads, the pool
+ * size and the queue still bound the number of running and waiting handlers.</p>
+ */
+class MvcAsyncExecutionConfigurer implements WebMvcConfigurer, DisposableBean {
+    private static final Log logger = LogFactory.getLog(MvcAsyncExecutionConfigurer.class);
+
+    private final AsyncExecution asyncExecution;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final LongAdder rejected = new LongAdder();
+
+    MvcAsyncExecutionConfigurer(AsyncExecution asyncExecution) {
+        this.asyncExecution = asyncExecution;
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(asyncExecution.getCorePoolSize());
+        taskExecutor.setMaxPoolSize(asyncExecution.getMaxPoolSize());
+        taskExecutor.setQueueCapacity(asyncExecution.getQueueCapacity());
+        taskExecutor.setKeepAliveSeconds((int) asyncExecution.getKeepAlive().getSeconds());
+        taskExecutor.setThreadNamePrefix(asyncExecution.getThreadNamePrefix());
+        taskExecutor.setRejectedExecutionHandler(countingRejectionHandler(asyncExecution.getRejectionPolicy()));
+        if (asyncExecution.isVirtualThreads()) {
+            ThreadFactory virtualThreadFactory = virtualThreadFactory(asyncExecution.getThreadNamePrefix());
+            if (virtualThreadFactory != null) {
+                taskExecutor.setThreadFactory(virtualThreadFactory);
+            } else {
+                logger.warn("Virtual threads are not available on this runtime, MVC async handlers run on platform threads");
+            }
+        }
+        taskExecutor.initialize();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        if (asyncExecution.getTimeout() != null) {
+            configurer.setDefaultTimeout(asyncExecution.getTimeout().toMillis());
+        }
+    }
+
+    private RejectedExecutionHandler countingRejectionHandler(RejectionPolicy rejectionPolicy) {
+        RejectedExecutionHandler policy = rejectionPolicy == RejectionPolicy.CALLER_RUNS ?
+                                          new ThreadPoolExecutor.CallerRunsPolicy() :
+                                          new ThreadPoolExecutor.AbortPolicy();
+        return (task, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    /**
+     * @return a factory of virtual threads, as of Java 21, or {@code null} if not available
+     */
+    @Nullable
+    private static ThreadFactory virtualThreadFactory(String threadNamePrefix) {
+        Method ofVirtual = ClassUtils.getMethodIfAvailable(Thread.class, "ofVirtual");
+        if (ofVirtual == null) {
+            return null;
+        }
+        try {
+            Class<?> builderClass = ClassUtils.forName("java.lang.Thread$Builder", Thread.class.getClassLoader());
+            Object builder = ReflectionUtils.invokeMethod(ofVirtual, null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError ex) {
+            // Java 19 and 20 throw UnsupportedOperationException without --enable-preview
+            logger.debug("Unable to create a virtual thread factory", ex);
+            return null;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    ThreadPoolTaskExecutor getTaskExecutor() {
+        return taskExecutor;
+    }
+
+    /**
+     * @return the number of handlers currently running
+     */
+    public int getActiveCount() {
+        return taskExecutor.getActiveCount();
+    }
+
+    /**
+     * @return the number of handlers waiting for a thread
+     */
+    public int getQueueSize() {
+        return taskExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    public int getPoolSize() {
+        return taskExecutor.getPoolSize();
+    }
+
+    /**
+     * @return the number of handlers rejected as the pool and the queue were full
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
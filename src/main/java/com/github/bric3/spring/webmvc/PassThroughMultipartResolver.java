@@ -0,0 +1,29 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * `MultipartResolver` of the streaming multipart mode, the multipart requests reach
+ * the handlers untouched, their body is read through a {@link StreamingMultipart}.
+ * The auto-configured resolver would ask the container to parse the parts.
+ */
+final class PassThroughMultipartResolver implements MultipartResolver {
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return false;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        throw new MultipartException("Multipart requests are streamed, use a StreamingMultipart handler argument");
+    }
+
+    @Override
+    public void cleanupMultipart(MultipartHttpServletRequest request) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared {@link AntPathMatcher} that compiles each pattern once, to reject paths not
+ * starting with the literal prefix of the pattern, to match literal patterns by
+ * equality, and to match the patterns made of literal, {@code *} and {@code {name}}
+ * segments by walking the path in place.
+ *
+ * <p>Other patterns, e.g. with {@code **}, partial wildcards or regular expressions,
+ * as well as paths with empty segments or a trailing separator, are matched by the
+ * {@link AntPathMatcher} itself once past the literal prefix check. All the other
+ * operations are inherited, so this matcher is a drop-in replacement.
+ * As the {@link #INSTANCE} is shared, its configuration cannot be changed.</p>
+ */
+final class PrecompiledPathMatcher extends AntPathMatcher {
+    static final PrecompiledPathMatcher INSTANCE = new PrecompiledPathMatcher();
+
+    /**
+     * Like the {@link AntPathMatcher} cache, compiled patterns are no longer cached past
+     * this size, as the patterns are then likely built from the requests.
+     */
+    private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+
+    private final ConcurrentHashMap<String, CompiledPattern> compiledPatterns = new ConcurrentHashMap<>(256);
+    private volatile boolean cachePatterns = true;
+
+    private PrecompiledPathMatcher() {
+    }
+
+    @Override
+    public boolean match(String pattern, String path) {
+        if (!path.startsWith(DEFAULT_PATH_SEPARATOR) || path.contains("//")) {
+            return super.match(pattern, path);
+        }
+        CompiledPattern compiled = compile(pattern);
+        if (!path.startsWith(compiled.literalPrefix)) {
+            return false;
+        }
+        if (compiled.literal) {
+            return pattern.equals(path);
+        }
+        if (compiled.segments != null && !path.endsWith(DEFAULT_PATH_SEPARATOR)) {
+            return matchSegments(compiled.segments, path);
+        }
+        return super.match(pattern, path);
+    }
+
+    private CompiledPattern compile(String pattern) {
+        CompiledPattern compiled = cachePatterns ? compiledPatterns.get(pattern) : null;
+        if (compiled == null) {
+            compiled = new CompiledPattern(pattern);
+            if (cachePatterns) {
+                if (compiledPatterns.size() >= CACHE_TURNOFF_THRESHOLD) {
+                    cachePatterns = false;
+                    compiledPatterns.clear();
+                } else {
+                    compiledPatterns.put(pattern, compiled);
+                }
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * @param segments the literal segments, {@code null} for a segment matching any non-empty segment
+     */
+    private static boolean matchSegments(String[] segments, String path) {
+        int start = 1;
+        for (int i = 0; i < segments.length; i++) {
+            if (start > path.length()) {
+                return false;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            String segment = segments[i];
+            if (segment == null ?
+                end == start || hasLineTerminator(path, start, end) :
+                segment.length() != end - start || !path.regionMatches(start, segment, 0, segment.length())) {
+                return false;
+            }
+            start = end + 1;
+        }
+        return start == path.length() + 1;
+    }
+
+    /**
+     * Wildcards are matched by {@code AntPathMatcher} with {@code .*}, that does not match line terminators.
+     */
+    private static boolean hasLineTerminator(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void setPathSeparator(@Nullable String pathSeparator) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCaseSensitive(boolean caseSensitive) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTrimTokens(boolean trimTokens) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setCachePatterns(boolean cachePatterns) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("The shared precompiled PathMatcher cannot be modified");
+    }
+
+    private static final class CompiledPattern {
+        /**
+         * Literal beginning of the pattern, without its last separator, as {@code /a/**} matches {@code /a}.
+         */
+        private final String literalPrefix;
+        private final boolean literal;
+        @Nullable
+        private final String[] segments;
+
+        CompiledPattern(String pattern) {
+            int wildcard = indexOfWildcard(pattern);
+            boolean compilable = pattern.startsWith(DEFAULT_PATH_SEPARATOR) && !pattern.contains("//");
+            if (!compilable) {
+                this.literalPrefix = "";
+                this.literal = false;
+                this.segments = null;
+            } else if (wildcard < 0) {
+                this.literalPrefix = pattern;
+                this.literal = true;
+                this.segments = null;
+            } else {
+                this.literalPrefix = pattern.substring(0, Math.max(pattern.lastIndexOf('/', wildcard), 0));
+                this.literal = false;
+                this.segments = pattern.endsWith(DEFAULT_PATH_SEPARATOR) ? null : compileSegments(pattern);
+            }
+        }
+
+        private static int indexOfWildcard(String pattern) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*' || c == '?' || c == '{') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Nullable
+        private static String[] compileSegments(String pattern) {
+            String[] segments = pattern.substring(1).split("/", -1);
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if (segment.equals("*") || isSimpleVariable(segment)) {
+                    segments[i] = null;
+                } else if (indexOfWildcard(segment) >= 0 || segment.indexOf('}') >= 0) {
+                    return null;
+                }
+            }
+            return segments;
+        }
+
+        private static boolean isSimpleVariable(String segment) {
+            return segment.length() > 2
+                   && segment.charAt(0) == '{'
+                   && segment.indexOf('}') == segment.length() - 1
+                   && segment.indexOf(':') < 0
+                   && segment.indexOf('{', 1) < 0;
+        }
+    }
+}
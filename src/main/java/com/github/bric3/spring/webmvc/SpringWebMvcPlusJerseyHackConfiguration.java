@@ -1,33 +1,66 @@
 package com.github.bric3.spring.webmvc;
 
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.AsyncExecution;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.HandlerCache;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.MultipartStreaming;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.ProbeCache;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.Sharding;
 import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.WebMvcEnforcedPrefixesProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.actuate.endpoint.web.servlet.WebMvcEndpointHandlerMapping;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletPath;
 import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.Ordered;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.web.servlet.handler.AbstractHandlerMapping;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
-import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import javax.servlet.DispatcherType;
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.ServletRegistration;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -45,12 +78,35 @@ import static org.springframework.boot.autoconfigure.web.servlet.DispatcherServl
  * registering the Spring Web MVC `DispatcherServlet` with a regular
  * `ServletRegistrationBean` that is configured with the wanted url-mappings.</p>
  *
+ * <p>Alternatively, with {@code spring.mvc.url-mappings-routing=filter}, the
+ * `DispatcherServlet` is registered without url-mapping, and a single
+ * {@link UrlMappingsRoutingFilter} forwards the requests matching the url-mappings
+ * to it, the other requests go to the servlet the container mapped them to.</p>
+ *
  * <p>However Spring Web MVC by default uses some knowledge of the servlet
  * configuration to map request to actual handler. It is done via the
  * `UrlPathHelper` class that is used in many places (a new instance) with
  * its default configuration. This configuration sets a `UrlPathHelper`
  * configured to <i>always use full path</i> on various types that are part
- * of Spring Web MVC.</p>
+ * of Spring Web MVC. A single {@link FullPathUrlPathHelper} is shared by all
+ * of them, so the lookup path is only resolved once per request. Likewise
+ * their patterns are matched by the shared {@link PrecompiledPathMatcher}.</p>
+ *
+ * <p>The actuator endpoint mappings are patched through a private static field
+ * when this class is initialized. In a native image, or when the {@value #IGNORE_REFLECTION}
+ * flag is set as a system property or in {@code spring.properties}, their mappings
+ * are registered again by the {@link EndpointHandlerMappingPostProcessor} instead.</p>
+ *
+ * <p>With {@code spring.mvc.async-execution.enabled=true} the `Callable` handlers
+ * run on a bounded executor dedicated to Spring Web MVC, so slow MVC handlers do not
+ * hold the container threads that Jersey needs, see {@link AsyncExecution}.</p>
+ *
+ * <p>With {@code spring.mvc.sharding.enabled=true} each configured shard gets its own
+ * `DispatcherServlet` and child context, see {@link DispatcherServletShards}.</p>
+ *
+ * <p>With {@code spring.mvc.multipart-streaming.enabled=true} the `DispatcherServlet`
+ * is registered without multipart configuration, so the container does not buffer the
+ * uploads, the handlers read the parts as they arrive, see {@link StreamingMultipart}.</p>
  *
  *
  * https://github.com/spring-projects/spring-boot/issues/17523
@@ -63,27 +119,61 @@ import static org.springframework.boot.autoconfigure.web.servlet.DispatcherServl
 @EnableConfigurationProperties({WebMvcProperties.class, WebMvcEnforcedPrefixesProperties.class})
 @Profile("web-mvc-config-hack-mitigation")
 public class SpringWebMvcPlusJerseyHackConfiguration {
+    static final String IGNORE_REFLECTION = "leftouts.reflection.ignore";
+
+    private static final boolean builderConfigReflection =
+            !SpringProperties.getFlag(IGNORE_REFLECTION) && System.getProperty("org.graalvm.nativeimage.imagecode") == null;
+    private static final long builderConfigHackDuration;
+
     private final WebMvcProperties webMvcProperties;
+    @Nullable
     private final MultipartConfigElement multipartConfig;
+    private final LeftoutsStartupMetrics metrics;
 
     static {
+        long start = System.nanoTime();
         // has to be done before WebMvcEndpointHandlerMapping.afterPropertiesSet
-        ReflectionUtils.doWithFields(
-                WebMvcEndpointHandlerMapping.class,
-                field -> {
-                    ReflectionUtils.makeAccessible(field);
-                    final RequestMappingInfo.BuilderConfiguration builderConfiguration =
-                            (RequestMappingInfo.BuilderConfiguration) ReflectionUtils.getField(field, null);
-                    Assert.notNull(builderConfiguration, "This code expects this '" + field + "' to be not null");
-                    builderConfiguration.setUrlPathHelper(urlPathHelper());
-                },
-                field -> Objects.equals("builderConfig", field.getName()));
+        if (builderConfigReflection) {
+            ReflectionUtils.doWithFields(
+                    WebMvcEndpointHandlerMapping.class,
+                    field -> {
+                        ReflectionUtils.makeAccessible(field);
+                        final RequestMappingInfo.BuilderConfiguration builderConfiguration =
+                                (RequestMappingInfo.BuilderConfiguration) ReflectionUtils.getField(field, null);
+                        Assert.notNull(builderConfiguration, "This code expects this '" + field + "' to be not null");
+                        builderConfiguration.setUrlPathHelper(FullPathUrlPathHelper.INSTANCE);
+                        builderConfiguration.setPathMatcher(PrecompiledPathMatcher.INSTANCE);
+                    },
+                    field -> Objects.equals("builderConfig", field.getName()));
+        }
+        builderConfigHackDuration = System.nanoTime() - start;
     }
 
     public SpringWebMvcPlusJerseyHackConfiguration(WebMvcProperties webMvcProperties,
-                                                   ObjectProvider<MultipartConfigElement> multipartConfigProvider) {
+                                                   ObjectProvider<MultipartConfigElement> multipartConfigProvider,
+                                                   WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties,
+                                                   ConfigurableListableBeanFactory beanFactory,
+                                                   Environment environment) {
         this.webMvcProperties = webMvcProperties;
-        this.multipartConfig = multipartConfigProvider.getIfAvailable();
+        // the container would parse, and buffer, the multipart requests before the handlers run
+        this.multipartConfig = webMvcEnforcedPrefixesProperties.getMultipartStreaming().isEnabled() ?
+                               null :
+                               multipartConfigProvider.getIfAvailable();
+        this.metrics = LeftoutsStartupMetrics.get(beanFactory, environment);
+        this.metrics.recordWebMvcHack("builder-config", builderConfigHackDuration);
+    }
+
+    @Bean
+    @Conditional(NoBuilderConfigReflectionCondition.class)
+    static EndpointHandlerMappingPostProcessor endpointHandlerMappingPostProcessor() {
+        return new EndpointHandlerMappingPostProcessor();
+    }
+
+    static class NoBuilderConfigReflectionCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return !builderConfigReflection;
+        }
     }
 
     @Bean
@@ -91,32 +181,36 @@ public class SpringWebMvcPlusJerseyHackConfiguration {
         return new WebMvcConfigurer() {
             @Override
             public void configurePathMatch(PathMatchConfigurer configurer) {
-                final UrlPathHelper urlPathHelper = urlPathHelper();
-                configurer.setUrlPathHelper(urlPathHelper);
+                configurer.setUrlPathHelper(FullPathUrlPathHelper.INSTANCE);
+                configurer.setPathMatcher(PrecompiledPathMatcher.INSTANCE);
             }
         };
     }
 
     @Bean
     Object handlerMappingCustomizer(List<AbstractHandlerMapping> handlerMappings) {
-        handlerMappings.forEach(handlerMapping -> handlerMapping.setUrlPathHelper(urlPathHelper()));
+        long start = System.nanoTime();
+        handlerMappings.forEach(handlerMapping -> {
+            handlerMapping.setUrlPathHelper(FullPathUrlPathHelper.INSTANCE);
+            handlerMapping.setPathMatcher(PrecompiledPathMatcher.INSTANCE);
+        });
+        metrics.recordWebMvcHack("handler-mappings", System.nanoTime() - start);
         return true;
     }
 
-    private static UrlPathHelper urlPathHelper() {
-        final UrlPathHelper urlPathHelper = new UrlPathHelper();
-        urlPathHelper.setAlwaysUseFullPath(true);
-        return urlPathHelper;
-    }
-
     @Bean(name = DispatcherServletAutoConfiguration.DEFAULT_DISPATCHER_SERVLET_REGISTRATION_BEAN_NAME)
     ServletRegistrationBean<DispatcherServlet> dispatcherServletRegistration(DispatcherServlet dispatcherServlet,
                                                                              WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
-        ServletRegistrationBean<DispatcherServlet> registration =
-                new ServletRegistrationBean<>(dispatcherServlet,
-                                              webMvcEnforcedPrefixesProperties.getUrlMappings()
-                                                                              .stream()
-                                                                              .toArray(String[]::new));
+        ServletRegistrationBean<DispatcherServlet> registration;
+        if (webMvcEnforcedPrefixesProperties.getUrlMappingsRouting() == UrlMappingsRouting.FILTER) {
+            // only reachable through the routing filter
+            registration = new ServletRegistrationBean<>(dispatcherServlet, false);
+        } else {
+            registration = new ServletRegistrationBean<>(dispatcherServlet,
+                                                         webMvcEnforcedPrefixesProperties.getUrlMappings()
+                                                                                         .stream()
+                                                                                         .toArray(String[]::new));
+        }
         registration.setName(DEFAULT_DISPATCHER_SERVLET_BEAN_NAME);
         registration.setLoadOnStartup(this.webMvcProperties.getServlet().getLoadOnStartup());
         if (this.multipartConfig != null) {
@@ -125,6 +219,192 @@ public class SpringWebMvcPlusJerseyHackConfiguration {
         return registration;
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc.sharding", name = "enabled", havingValue = "true")
+    DispatcherServletShards dispatcherServletShards(ApplicationContext applicationContext,
+                                                    WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        Sharding sharding = webMvcEnforcedPrefixesProperties.getSharding();
+        return new DispatcherServletShards(applicationContext,
+                                           sharding.getShards(),
+                                           sharding.isParallelInitialization(),
+                                           this.webMvcProperties,
+                                           this.multipartConfig,
+                                           this.metrics);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc.async-execution", name = "enabled", havingValue = "true")
+    MvcAsyncExecutionConfigurer mvcAsyncExecutionConfigurer(WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        // not an Executor bean, the application task executor auto-configuration would back off
+        return new MvcAsyncExecutionConfigurer(webMvcEnforcedPrefixesProperties.getAsyncExecution());
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "spring.mvc.async-execution", name = "enabled", havingValue = "true")
+    static class AsyncExecutionMetricsConfiguration {
+
+        @Bean
+        MeterBinder mvcAsyncExecutionMeterBinder(MvcAsyncExecutionConfigurer mvcAsyncExecutionConfigurer) {
+            return registry -> {
+                Gauge.builder("leftouts.webmvc.async.active",
+                              mvcAsyncExecutionConfigurer,
+                              MvcAsyncExecutionConfigurer::getActiveCount)
+                     .register(registry);
+                Gauge.builder("leftouts.webmvc.async.pool.size",
+                              mvcAsyncExecutionConfigurer,
+                              MvcAsyncExecutionConfigurer::getPoolSize)
+                     .register(registry);
+                Gauge.builder("leftouts.webmvc.async.queued",
+                              mvcAsyncExecutionConfigurer,
+                              MvcAsyncExecutionConfigurer::getQueueSize)
+                     .register(registry);
+                FunctionCounter.builder("leftouts.webmvc.async.rejected",
+                                        mvcAsyncExecutionConfigurer,
+                                        MvcAsyncExecutionConfigurer::getRejectedCount)
+                               .register(registry);
+            };
+        }
+    }
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    @ConditionalOnProperty(prefix = "spring.mvc.multipart-streaming", name = "enabled", havingValue = "true")
+    MultipartResolver passThroughMultipartResolver() {
+        return new PassThroughMultipartResolver();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc.multipart-streaming", name = "enabled", havingValue = "true")
+    WebMvcConfigurer streamingMultipartConfigurer(WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        StreamingMultipartArgumentResolver argumentResolver =
+                new StreamingMultipartArgumentResolver(webMvcEnforcedPrefixesProperties.getMultipartStreaming());
+        return new WebMvcConfigurer() {
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(argumentResolver);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc", name = "url-mappings-routing", havingValue = "filter")
+    UrlMappingsRoutingFilter urlMappingsRoutingFilter(WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        return new UrlMappingsRoutingFilter(webMvcEnforcedPrefixesProperties.getUrlMappings(),
+                                            DEFAULT_DISPATCHER_SERVLET_BEAN_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc", name = "url-mappings-routing", havingValue = "filter")
+    FilterRegistrationBean<UrlMappingsRoutingFilter> urlMappingsRoutingFilterRegistration(UrlMappingsRoutingFilter urlMappingsRoutingFilter) {
+        FilterRegistrationBean<UrlMappingsRoutingFilter> registration = new FilterRegistrationBean<>(urlMappingsRoutingFilter);
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        // after any other filter, e.g. security, as the forwarded request skips them
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "spring.mvc", name = "url-mappings-routing", havingValue = "filter")
+    static class UrlMappingsRoutingMetricsConfiguration {
+
+        @Bean
+        MeterBinder urlMappingsRoutingMeterBinder(UrlMappingsRoutingFilter urlMappingsRoutingFilter) {
+            return registry -> {
+                FunctionCounter.builder("leftouts.webmvc.routing",
+                                        urlMappingsRoutingFilter,
+                                        UrlMappingsRoutingFilter::getDispatcherServletRequests)
+                               .tag("target", "dispatcher-servlet")
+                               .register(registry);
+                FunctionCounter.builder("leftouts.webmvc.routing",
+                                        urlMappingsRoutingFilter,
+                                        UrlMappingsRoutingFilter::getChainRequests)
+                               .tag("target", "chain")
+                               .register(registry);
+            };
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc.probe-cache", name = "enabled", havingValue = "true")
+    FilterRegistrationBean<ActuatorProbeCacheFilter> actuatorProbeCacheFilterRegistration(WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        ProbeCache probeCache = webMvcEnforcedPrefixesProperties.getProbeCache();
+        FilterRegistrationBean<ActuatorProbeCacheFilter> registration =
+                new FilterRegistrationBean<>(new ActuatorProbeCacheFilter(probeCache.getPaths(),
+                                                                          probeCache.getTtl().toNanos()));
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        // after the security filters, ahead of the url-mappings routing
+        registration.setOrder(probeCache.getOrder());
+        return registration;
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "spring.mvc.probe-cache", name = "enabled", havingValue = "true")
+    static class ProbeCacheMetricsConfiguration {
+
+        @Bean
+        MeterBinder probeCacheMeterBinder(FilterRegistrationBean<ActuatorProbeCacheFilter> actuatorProbeCacheFilterRegistration) {
+            ActuatorProbeCacheFilter probeCacheFilter = actuatorProbeCacheFilterRegistration.getFilter();
+            return registry -> {
+                FunctionCounter.builder("leftouts.webmvc.probe-cache.requests",
+                                        probeCacheFilter,
+                                        ActuatorProbeCacheFilter::getHits)
+                               .tag("result", "hit")
+                               .register(registry);
+                FunctionCounter.builder("leftouts.webmvc.probe-cache.requests",
+                                        probeCacheFilter,
+                                        ActuatorProbeCacheFilter::getMisses)
+                               .tag("result", "miss")
+                               .register(registry);
+            };
+        }
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mvc.handler-cache", name = "enabled", havingValue = "true")
+    WebMvcRegistrations cachingHandlerMappingRegistrations(WebMvcEnforcedPrefixesProperties webMvcEnforcedPrefixesProperties) {
+        HandlerCache handlerCache = webMvcEnforcedPrefixesProperties.getHandlerCache();
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+                return new CachingRequestMappingHandlerMapping(
+                        handlerCache.getMaxSize(),
+                        handlerCache.getExpireAfterAccess() == null ? 0 : handlerCache.getExpireAfterAccess().toNanos());
+            }
+        };
+    }
+
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "spring.mvc.handler-cache", name = "enabled", havingValue = "true")
+    static class HandlerCacheMetricsConfiguration {
+
+        @Bean
+        MeterBinder handlerCacheMeterBinder(ObjectProvider<CachingRequestMappingHandlerMapping> handlerMappings) {
+            return registry -> handlerMappings.forEach(handlerMapping -> {
+                FunctionCounter.builder("leftouts.webmvc.handler-cache.requests",
+                                        handlerMapping,
+                                        CachingRequestMappingHandlerMapping::getCacheHits)
+                               .tag("result", "hit")
+                               .register(registry);
+                FunctionCounter.builder("leftouts.webmvc.handler-cache.requests",
+                                        handlerMapping,
+                                        CachingRequestMappingHandlerMapping::getCacheMisses)
+                               .tag("result", "miss")
+                               .register(registry);
+                FunctionCounter.builder("leftouts.webmvc.handler-cache.evictions",
+                                        handlerMapping,
+                                        CachingRequestMappingHandlerMapping::getCacheEvictions)
+                               .register(registry);
+                Gauge.builder("leftouts.webmvc.handler-cache.size",
+                              handlerMapping,
+                              CachingRequestMappingHandlerMapping::getCacheSize)
+                     .register(registry);
+            });
+        }
+    }
+
     @Bean
     DispatcherServletPath dispatcherServletPath() {
         final String path = this.webMvcProperties.getServlet().getPath();
@@ -135,6 +415,12 @@ public class SpringWebMvcPlusJerseyHackConfiguration {
     @ConfigurationProperties("spring.mvc")
     public static class WebMvcEnforcedPrefixesProperties {
         private Set<String> urlMappings;
+        private UrlMappingsRouting urlMappingsRouting = UrlMappingsRouting.SERVLET;
+        private final HandlerCache handlerCache = new HandlerCache();
+        private final ProbeCache probeCache = new ProbeCache();
+        private final AsyncExecution asyncExecution = new AsyncExecution();
+        private final Sharding sharding = new Sharding();
+        private final MultipartStreaming multipartStreaming = new MultipartStreaming();
 
         public Set<String> getUrlMappings() {
             return urlMappings;
@@ -143,5 +429,334 @@ public class SpringWebMvcPlusJerseyHackConfiguration {
         public void setUrlMappings(Set<String> urlMappings) {
             this.urlMappings = urlMappings;
         }
+
+        public UrlMappingsRouting getUrlMappingsRouting() {
+            return urlMappingsRouting;
+        }
+
+        public void setUrlMappingsRouting(UrlMappingsRouting urlMappingsRouting) {
+            this.urlMappingsRouting = urlMappingsRouting;
+        }
+
+        public HandlerCache getHandlerCache() {
+            return handlerCache;
+        }
+
+        public ProbeCache getProbeCache() {
+            return probeCache;
+        }
+
+        public AsyncExecution getAsyncExecution() {
+            return asyncExecution;
+        }
+
+        public Sharding getSharding() {
+            return sharding;
+        }
+
+        public MultipartStreaming getMultipartStreaming() {
+            return multipartStreaming;
+        }
+    }
+
+    /**
+     * Cache of the handler methods resolved by path and HTTP method, the hit ratio is
+     * exposed by the {@code leftouts.webmvc.handler-cache.*} meters.
+     */
+    public static class HandlerCache {
+        private boolean enabled;
+        private int maxSize = 256;
+        private Duration expireAfterAccess;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+    }
+
+    /**
+     * Cache of the probe responses, e.g. health checks and metrics scraping, the hit ratio
+     * is exposed by the {@code leftouts.webmvc.probe-cache.requests} meter.
+     */
+    public static class ProbeCache {
+        private boolean enabled;
+        private Set<String> paths = new LinkedHashSet<>(Arrays.asList("/actuator/health", "/actuator/prometheus"));
+        private Duration ttl = Duration.ofSeconds(1);
+        private int order = SecurityProperties.DEFAULT_FILTER_ORDER + 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Set<String> getPaths() {
+            return paths;
+        }
+
+        public void setPaths(Set<String> paths) {
+            this.paths = paths;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getOrder() {
+            return order;
+        }
+
+        public void setOrder(int order) {
+            this.order = order;
+        }
+    }
+
+    /**
+     * Bounded executor of the `Callable` handlers, `DeferredResult` handlers complete on
+     * their own threads but share the timeout. The saturation is exposed by the
+     * {@code leftouts.webmvc.async.*} meters.
+     */
+    public static class AsyncExecution {
+        private boolean enabled;
+        private int corePoolSize = 8;
+        private int maxPoolSize = 32;
+        private int queueCapacity = 100;
+        private Duration keepAlive = Duration.ofSeconds(60);
+        private String threadNamePrefix = "mvc-async-";
+        private boolean virtualThreads;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+        private Duration timeout;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public String getThreadNamePrefix() {
+            return threadNamePrefix;
+        }
+
+        public void setThreadNamePrefix(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public RejectionPolicy getRejectionPolicy() {
+            return rejectionPolicy;
+        }
+
+        public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * `DispatcherServlet` shards, by name.
+     */
+    public static class Sharding {
+        private boolean enabled;
+        private boolean parallelInitialization;
+        private final Map<String, Shard> shards = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isParallelInitialization() {
+            return parallelInitialization;
+        }
+
+        public void setParallelInitialization(boolean parallelInitialization) {
+            this.parallelInitialization = parallelInitialization;
+        }
+
+        public Map<String, Shard> getShards() {
+            return shards;
+        }
+    }
+
+    /**
+     * A `DispatcherServlet` mapped on the url-mappings, serving the controllers of the base packages.
+     */
+    public static class Shard {
+        private Set<String> urlMappings = new LinkedHashSet<>();
+        private List<String> basePackages = new ArrayList<>();
+        private boolean lazyInit;
+
+        public Set<String> getUrlMappings() {
+            return urlMappings;
+        }
+
+        public void setUrlMappings(Set<String> urlMappings) {
+            this.urlMappings = urlMappings;
+        }
+
+        public List<String> getBasePackages() {
+            return basePackages;
+        }
+
+        public void setBasePackages(List<String> basePackages) {
+            this.basePackages = basePackages;
+        }
+
+        public boolean isLazyInit() {
+            return lazyInit;
+        }
+
+        public void setLazyInit(boolean lazyInit) {
+            this.lazyInit = lazyInit;
+        }
+    }
+
+    /**
+     * Streamed multipart requests, the buffer size bounds the memory used per request,
+     * including the headers of a part. A negative size is unlimited.
+     */
+    public static class MultipartStreaming {
+        private boolean enabled;
+        private DataSize bufferSize = DataSize.ofKilobytes(16);
+        private DataSize maxFileSize = DataSize.ofBytes(-1);
+        private DataSize maxRequestSize = DataSize.ofBytes(-1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(DataSize bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public DataSize getMaxFileSize() {
+            return maxFileSize;
+        }
+
+        public void setMaxFileSize(DataSize maxFileSize) {
+            this.maxFileSize = maxFileSize;
+        }
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+    }
+
+    /**
+     * What happens to a `Callable` handler when the pool and the queue are full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * The request fails, and the rejection is counted.
+         */
+        ABORT,
+
+        /**
+         * The handler runs on the container thread, slowing down the producer.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * How requests are routed to the `DispatcherServlet` according to the url-mappings.
+     */
+    public enum UrlMappingsRouting {
+        /**
+         * The `DispatcherServlet` is registered with the url-mappings, the container routes the requests.
+         */
+        SERVLET,
+
+        /**
+         * The {@link UrlMappingsRoutingFilter} routes the requests.
+         */
+        FILTER
     }
 }
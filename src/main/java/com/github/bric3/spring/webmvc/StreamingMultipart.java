@@ -0,0 +1,184 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.lang.Nullable;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Multipart request body parsed as it is read, one part at a time, without buffering
+ * the parts in memory or on disk. Obtained as a handler method argument when the
+ * streaming multipart mode is enabled.
+ *
+ * <p>A part can only be read until the next part is requested, the unread bytes
+ * of a part are then skipped. The memory used by a request is bounded by the
+ * buffer size, which also bounds the size of the headers of a part.</p>
+ */
+public final class StreamingMultipart {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] HEADERS_END = {'\r', '\n', '\r', '\n'};
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    private int head;
+    private int tail;
+    private long requestSize;
+    private boolean started;
+    private boolean finished;
+    @Nullable
+    private StreamingPart currentPart;
+
+    StreamingMultipart(InputStream in, String boundary, int bufferSize, long maxFileSize, long maxRequestSize) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(bufferSize, delimiter.length * 2)];
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+        // the first delimiter is not preceded by a line break
+        System.arraycopy(CRLF, 0, buffer, 0, CRLF.length);
+        this.tail = CRLF.length;
+    }
+
+    /**
+     * @return the next part, or {@code null} when all the parts have been read
+     */
+    @Nullable
+    public StreamingPart nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            // the preamble is skipped
+            skipToDelimiter();
+            started = true;
+        } else if (currentPart != null) {
+            currentPart.skipRemaining();
+        }
+        currentPart = null;
+
+        ensureAvailable(2);
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        Map<String, String> headers = readHeaders();
+        currentPart = new StreamingPart(this, headers);
+        return currentPart;
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        int headersEnd;
+        while ((headersEnd = indexOf(HEADERS_END, head)) < 0) {
+            if (tail - head == buffer.length) {
+                throw new MultipartException("Multipart headers exceed " + buffer.length + " bytes");
+            }
+            if (!fill()) {
+                throw new MultipartException("Unexpected end of multipart stream in part headers");
+            }
+        }
+        // the headers block starts after the line break of the delimiter
+        String block = new String(buffer, head + CRLF.length, Math.max(0, headersEnd - head - CRLF.length),
+                                  StandardCharsets.UTF_8);
+        head = headersEnd + HEADERS_END.length;
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String line : block.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private void skipToDelimiter() throws IOException {
+        while (read(null, 0, buffer.length, -1) >= 0) {
+            // discarded
+        }
+    }
+
+    /**
+     * Reads the bytes of the current part up to the next delimiter, which is consumed.
+     * The bytes are discarded when there is no target, the size of the part is not
+     * checked when negative.
+     *
+     * @return the number of bytes read, or -1 when the delimiter is reached
+     */
+    int read(@Nullable byte[] target, int off, int len, long partSize) throws IOException {
+        while (true) {
+            int delimiterIndex = indexOf(delimiter, head);
+            int available = delimiterIndex >= 0 ?
+                            delimiterIndex - head :
+                            // the end of the buffer may be the start of a delimiter
+                            tail - head - (delimiter.length - 1);
+            if (delimiterIndex == head) {
+                head += delimiter.length;
+                return -1;
+            }
+            if (available > 0) {
+                int count = Math.min(len, available);
+                if (partSize >= 0 && maxFileSize >= 0 && partSize + count > maxFileSize) {
+                    throw new MaxUploadSizeExceededException(maxFileSize);
+                }
+                if (target != null) {
+                    System.arraycopy(buffer, head, target, off, count);
+                }
+                head += count;
+                return count;
+            }
+            if (!fill()) {
+                throw new MultipartException("Unexpected end of multipart stream, missing closing delimiter");
+            }
+        }
+    }
+
+    private void ensureAvailable(int count) throws IOException {
+        while (tail - head < count) {
+            if (!fill()) {
+                throw new MultipartException("Unexpected end of multipart stream after delimiter");
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        requestSize += read;
+        if (maxRequestSize >= 0 && requestSize > maxRequestSize) {
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+        tail += read;
+        return true;
+    }
+
+    private int indexOf(byte[] pattern, int from) {
+        int last = tail - pattern.length;
+        outer:
+        for (int i = from; i <= last; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (buffer[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
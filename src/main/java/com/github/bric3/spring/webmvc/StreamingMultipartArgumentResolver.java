@@ -0,0 +1,64 @@
+package com.github.bric3.spring.webmvc;
+
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.MultipartStreaming;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the {@link StreamingMultipart} handler method arguments, over the input
+ * stream of the request. The container does not parse the multipart requests, there
+ * is no multipart configuration on the `DispatcherServlet` registration in this mode.
+ */
+final class StreamingMultipartArgumentResolver implements HandlerMethodArgumentResolver {
+    private final int bufferSize;
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    StreamingMultipartArgumentResolver(MultipartStreaming multipartStreaming) {
+        this.bufferSize = Math.toIntExact(multipartStreaming.getBufferSize().toBytes());
+        this.maxFileSize = multipartStreaming.getMaxFileSize().toBytes();
+        this.maxRequestSize = multipartStreaming.getMaxRequestSize().toBytes();
+        Assert.isTrue(bufferSize > 0, "The multipart streaming buffer size must be positive");
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == StreamingMultipart.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) throws Exception {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        Assert.state(request != null, "No HttpServletRequest");
+
+        String contentType = request.getContentType();
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        if (mediaType == null || !"multipart".equals(mediaType.getType())) {
+            throw new MultipartException("Current request is not a multipart request");
+        }
+        String boundary = mediaType.getParameter("boundary");
+        if (boundary == null || boundary.isEmpty()) {
+            throw new MultipartException("Multipart request without boundary");
+        }
+        if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+            boundary = boundary.substring(1, boundary.length() - 1);
+        }
+        // rejected before reading anything when the length is known
+        if (maxRequestSize >= 0 && request.getContentLengthLong() > maxRequestSize) {
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+        return new StreamingMultipart(request.getInputStream(), boundary, bufferSize, maxFileSize, maxRequestSize);
+    }
+}
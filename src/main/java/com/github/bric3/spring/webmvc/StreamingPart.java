@@ -0,0 +1,130 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Part of a {@link StreamingMultipart}, its content is read from the request as it
+ * arrives, and can only be read once, before the next part is requested.
+ */
+public final class StreamingPart {
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final StreamingMultipart multipart;
+    private final Map<String, String> headers;
+    private final ContentDisposition contentDisposition;
+    private final InputStream inputStream = new PartInputStream();
+
+    private long size;
+    private boolean consumed;
+
+    StreamingPart(StreamingMultipart multipart, Map<String, String> headers) {
+        this.multipart = multipart;
+        this.headers = headers;
+        String disposition = headers.get("content-disposition");
+        this.contentDisposition = disposition != null ? ContentDisposition.parse(disposition) : ContentDisposition.empty();
+    }
+
+    @Nullable
+    public String getName() {
+        return contentDisposition.getName();
+    }
+
+    /**
+     * @return the name of the submitted file, or {@code null} for a form field
+     */
+    @Nullable
+    public String getFilename() {
+        return contentDisposition.getFilename();
+    }
+
+    @Nullable
+    public String getContentType() {
+        return headers.get("content-type");
+    }
+
+    @Nullable
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the number of bytes read so far
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    public ReadableByteChannel getChannel() {
+        return Channels.newChannel(inputStream);
+    }
+
+    /**
+     * Spools the remaining content of the part to the given file with
+     * {@link FileChannel#transferFrom}, chunk by chunk as it arrives.
+     *
+     * @return the number of bytes written
+     */
+    public long transferTo(Path file) throws IOException {
+        try (FileChannel target = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            ReadableByteChannel source = getChannel();
+            long position = 0;
+            for (long transferred; (transferred = target.transferFrom(source, position, TRANSFER_CHUNK_SIZE)) > 0; ) {
+                position += transferred;
+            }
+            return position;
+        }
+    }
+
+    void skipRemaining() throws IOException {
+        while (read(null, 0, Integer.MAX_VALUE) >= 0) {
+            // discarded
+        }
+    }
+
+    private int read(@Nullable byte[] target, int off, int len) throws IOException {
+        if (consumed) {
+            return -1;
+        }
+        int read = multipart.read(target, off, len, size);
+        if (read < 0) {
+            consumed = true;
+        } else {
+            size += read;
+        }
+        return read;
+    }
+
+    private final class PartInputStream extends InputStream {
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return StreamingPart.this.read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            return StreamingPart.this.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servlet filter that routes the requests matching the Spring Web MVC url-mappings
+ * to the named {@code DispatcherServlet}, the other requests continue down the chain
+ * to the servlet they are mapped to, usually Jersey on {@code /*}.
+ *
+ * <p>The url-mappings are compiled once in a {@link UrlMappingsTrie}, the routing
+ * walks the path within the application once, and does not allocate. As the request
+ * is forwarded through a named dispatcher, its servlet path is the one of the other
+ * servlet, the handler mappings must then always use the full path.</p>
+ */
+public class UrlMappingsRoutingFilter extends GenericFilterBean {
+    private final UrlMappingsTrie urlMappings;
+    private final String dispatcherServletName;
+    private final LongAdder dispatcherServletRequests = new LongAdder();
+    private final LongAdder chainRequests = new LongAdder();
+
+    public UrlMappingsRoutingFilter(Collection<String> urlMappings, String dispatcherServletName) {
+        this.urlMappings = new UrlMappingsTrie(urlMappings);
+        this.dispatcherServletName = dispatcherServletName;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest httpRequest = (HttpServletRequest) request;
+        if (!urlMappings.matches(httpRequest.getServletPath(), httpRequest.getPathInfo())) {
+            chainRequests.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        dispatcherServletRequests.increment();
+        RequestDispatcher dispatcher = request.getServletContext().getNamedDispatcher(dispatcherServletName);
+        if (dispatcher == null) {
+            throw new ServletException("No servlet named '" + dispatcherServletName + "' to route " + httpRequest.getRequestURI());
+        }
+        dispatcher.forward(request, response);
+    }
+
+    /**
+     * @return the number of requests routed to the {@code DispatcherServlet}
+     */
+    public long getDispatcherServletRequests() {
+        return dispatcherServletRequests.sum();
+    }
+
+    /**
+     * @return the number of requests that continued down the filter chain
+     */
+    public long getChainRequests() {
+        return chainRequests.sum();
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.bric3.spring.webmvc;
+
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Precompiled servlet url-mappings, matched against the path within the application
+ * in a single walk of the path characters, without allocation.
+ *
+ * <p>Supports the servlet specification patterns: path prefixes ({@code /api/*}),
+ * exact paths ({@code /health}), extensions ({@code *.do}), the context root
+ * ({@code ""}) and the default servlet ({@code /}), the latter matching any path.</p>
+ */
+final class UrlMappingsTrie {
+    private final Node root = new Node();
+    private final String[] extensions;
+    private final boolean matchesAll;
+
+    UrlMappingsTrie(Collection<String> urlMappings) {
+        List<String> extensions = new ArrayList<>();
+        boolean matchesAll = false;
+        for (String urlMapping : urlMappings) {
+            if (urlMapping.equals("/")) {
+                matchesAll = true;
+            } else if (urlMapping.isEmpty()) {
+                insert("/").exact = true;
+            } else if (urlMapping.startsWith("*.")) {
+                extensions.add(urlMapping.substring(1));
+            } else if (!urlMapping.startsWith("/")) {
+                throw new IllegalArgumentException("Invalid url-mapping: '" + urlMapping + "'");
+            } else if (urlMapping.endsWith("/*")) {
+                insert(urlMapping.substring(0, urlMapping.length() - 2)).prefix = true;
+            } else {
+                insert(urlMapping).exact = true;
+            }
+        }
+        this.extensions = extensions.toArray(new String[0]);
+        this.matchesAll = matchesAll;
+    }
+
+    private Node insert(String path) {
+        Node node = root;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.childOrCreate(path.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Matches the path within the application, given as the servlet path followed by the
+     * optional path info, as exposed by the request mapped to the other servlet.
+     */
+    boolean matches(String servletPath, @Nullable String pathInfo) {
+        if (matchesAll) {
+            return true;
+        }
+        int length = servletPath.length() + (pathInfo == null ? 0 : pathInfo.length());
+
+        Node node = root;
+        for (int i = 0; node != null; i++) {
+            if (node.prefix && (i == length || charAt(servletPath, pathInfo, i) == '/')) {
+                return true;
+            }
+            if (i == length) {
+                if (node.exact) {
+                    return true;
+                }
+                break;
+            }
+            node = node.child(charAt(servletPath, pathInfo, i));
+        }
+
+        for (String extension : extensions) {
+            if (endsWith(servletPath, pathInfo, length, extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static char charAt(String servletPath, @Nullable String pathInfo, int index) {
+        int servletPathLength = servletPath.length();
+        return index < servletPathLength ? servletPath.charAt(index) : pathInfo.charAt(index - servletPathLength);
+    }
+
+    private static boolean endsWith(String servletPath, @Nullable String pathInfo, int length, String suffix) {
+        int offset = length - suffix.length();
+        if (offset < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (charAt(servletPath, pathInfo, offset + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private boolean exact;
+        private boolean prefix;
+
+        @Nullable
+        Node child(char label) {
+            char[] labels = this.labels;
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char label) {
+            Node child = child(label);
+            if (child == null) {
+                child = new Node();
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                labels[labels.length - 1] = label;
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
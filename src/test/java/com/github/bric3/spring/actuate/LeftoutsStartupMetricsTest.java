@@ -0,0 +1,176 @@
+package com.github.bric3.spring.actuate;
+
+import com.github.bric3.spring.autowire.AutowireExcluding;
+import com.github.bric3.spring.autowire.ExcludingAutowiredBeanPostProcessor;
+import com.github.bric3.spring.condition.ConditionalOnPropertiesCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeftoutsStartupMetricsTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @AfterEach
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void records_components_when_enabled() {
+        load(LeftoutsStartupMetrics.ENABLED_PROPERTY + "=true",
+             "feature[0].p1=value1");
+
+        Map<String, Object> leftouts = context.getBean(LeftoutsEndpoint.class).leftouts();
+        assertThat(leftouts).containsEntry("enabled", true);
+        assertThat((Map<String, Object>) leftouts.get("propertiesCollectionConditions"))
+                .containsOnlyKeys(InstrumentedConfiguration.class.getName() + "#feature");
+        Map<String, Object> autowireExcluding = (Map<String, Object>) leftouts.get("autowireExcluding");
+        assertThat(autowireExcluding).containsEntry("resolvedCandidates", 1L)
+                                     .containsEntry("excludedCandidates", 1L);
+        assertThat((Map<String, Object>) autowireExcluding.get("beans")).containsOnlyKeys("consumer");
+        assertThat((Map<String, Object>) autowireExcluding.get("candidates")).containsOnlyKeys("included");
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        context.getBean(LeftoutsMeterBinder.class).bindTo(registry);
+        assertThat(registry.get("leftouts.autowire.injection").functionTimer().count()).isEqualTo(1);
+        assertThat(registry.get("leftouts.autowire.candidate.creation").functionTimer().count()).isEqualTo(1);
+        assertThat(registry.get("leftouts.condition.evaluation").tag("property", "feature").functionTimer().count()).isPositive();
+
+        // recorded after binding, e.g. a lazy shard refresh
+        context.getBean(LeftoutsStartupMetrics.class).recordWebMvcHack("shard:late", 42);
+        assertThat(registry.get("leftouts.webmvc.hack").tag("step", "shard:late").functionTimer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void records_nothing_when_disabled() {
+        load("feature[0].p1=value1");
+
+        LeftoutsStartupMetrics metrics = context.getBean(LeftoutsStartupMetrics.class);
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(metrics.isJfrEnabled()).isFalse();
+        assertThat(metrics.getConditionTimings()).isEmpty();
+        assertThat(metrics.getAutowireExcludingTimings()).isEmpty();
+        assertThat(metrics.getResolvedCandidates()).isZero();
+    }
+
+    @Test
+    public void emits_flight_recorder_events_when_enabled(@TempDir Path directory) throws IOException {
+        Path dump = directory.resolve("leftouts.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.bric3.spring.AutowireExcluding");
+            recording.enable("com.github.bric3.spring.PropertiesCollectionCondition");
+            recording.start();
+            load(LeftoutsStartupMetrics.ENABLED_PROPERTY + "=true",
+                 LeftoutsStartupMetrics.JFR_ENABLED_PROPERTY + "=true",
+                 "feature[0].p1=value1");
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(dump)
+                                                               .stream()
+                                                               .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertThat(events.get("com.github.bric3.spring.AutowireExcluding"))
+                .hasSize(1)
+                .allSatisfy(event -> {
+                    assertThat(event.getString("beanName")).isEqualTo("consumer");
+                    assertThat(event.getDuration("elapsed")).isGreaterThan(Duration.ZERO);
+                });
+        assertThat(events.get("com.github.bric3.spring.PropertiesCollectionCondition"))
+                .isNotEmpty()
+                .allSatisfy(event -> {
+                    assertThat(event.getString("annotatedElement")).isEqualTo(InstrumentedConfiguration.class.getName());
+                    assertThat(event.getString("propertyName")).isEqualTo("feature");
+                    assertThat(event.getBoolean("matched")).isTrue();
+                });
+    }
+
+    @Test
+    public void emits_no_flight_recorder_event_when_the_events_cannot_be_loaded() {
+        // e.g. Java 8 with jdk.jfr, the event classes target Java 11
+        ClassLoader java8ClassLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (name.equals(LeftoutsStartupMetrics.FLIGHT_RECORDER_EVENTS_CLASS_NAME)) {
+                    throw new UnsupportedClassVersionError(name + " has been compiled by a more recent version of the Java Runtime");
+                }
+                return super.loadClass(name, resolve);
+            }
+        };
+        assertThat(LeftoutsStartupMetrics.isFlightRecorderAvailable(java8ClassLoader)).isFalse();
+
+        ClassLoader noFlightRecorderClassLoader = new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+                if (name.startsWith("jdk.jfr.")) {
+                    throw new ClassNotFoundException(name);
+                }
+                return super.loadClass(name, resolve);
+            }
+        };
+        assertThat(LeftoutsStartupMetrics.isFlightRecorderAvailable(noFlightRecorderClassLoader)).isFalse();
+    }
+
+    private void load(String... environment) {
+        context = new AnnotationConfigApplicationContext();
+        TestPropertyValues.of(environment).applyTo(context);
+        context.register(InstrumentedConfiguration.class);
+        context.refresh();
+    }
+
+    @Configuration
+    @Import(LeftoutsMetricsConfiguration.class)
+    @ConditionalOnPropertiesCollection(name = "feature", subProperties = "p1")
+    static class InstrumentedConfiguration {
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludingAutowiredBeanPostProcessor() {
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+
+        // declared first, the candidates are created while injected
+        @Bean
+        public Consumer consumer() {
+            return new Consumer();
+        }
+
+        @Bean
+        public Integer included() {
+            return 1;
+        }
+
+        @Bean
+        @Qualifier("excluded")
+        public Integer excluded() {
+            return 2;
+        }
+    }
+
+    static class Consumer {
+        @AutowireExcluding(qualifierToExcludeValue = "excluded", aClass = Integer.class)
+        List<Integer> integers;
+    }
+}
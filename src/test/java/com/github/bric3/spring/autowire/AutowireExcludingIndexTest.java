@@ -0,0 +1,43 @@
+package com.github.bric3.spring.autowire;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AutowireExcludingIndexTest {
+
+    private final AutowireExcludingIndex index = AutowireExcludingIndex.load(getClass().getClassLoader());
+
+    @Test
+    public void classes_declaring_annotated_fields_are_indexed() {
+        assertThat(index.mayDeclareInjectionPoints(ExclusionConditionTest.class)).isTrue();
+        assertThat(index.mayDeclareInjectionPoints(ExclusionConditionTest.LazyConfigurationBean.class)).isTrue();
+    }
+
+    @Test
+    public void subclasses_of_indexed_classes_may_declare_injection_points() {
+        assertThat(index.mayDeclareInjectionPoints(ExclusionConditionTest.InheritingConsumer.class)).isTrue();
+    }
+
+    @Test
+    public void annotated_fields_are_writable_in_native_image() throws IOException {
+        String reflectConfig = StreamUtils.copyToString(
+                new ClassPathResource("META-INF/native-image/autowire-excluding/reflect-config.json").getInputStream(),
+                StandardCharsets.UTF_8);
+
+        assertThat(reflectConfig).contains("\"name\": \"" + ExclusionConditionTest.LazyConfigurationBean.class.getName() + "\"")
+                                 .contains("{ \"name\": \"lazyBeansWithoutExclude\", \"allowWrite\": true }")
+                                 .doesNotContain(Bean1Included.class.getName());
+    }
+
+    @Test
+    public void classes_without_annotated_fields_are_not_indexed() {
+        assertThat(index.mayDeclareInjectionPoints(Bean1Included.class)).isFalse();
+        assertThat(index.mayDeclareInjectionPoints(ParentBean.class)).isFalse();
+    }
+}
@@ -2,16 +2,29 @@ package com.github.bric3.spring.autowire;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.NoUniqueBeanDefinitionException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.annotation.Order;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = ExclusionConditionTest.ConfigurationBean.class)
@@ -21,6 +34,11 @@ public class ExclusionConditionTest {
     private ApplicationContext context;
     @Autowired
     private BeanExcluded beanExcluded;
+    @Autowired
+    private InheritingConsumer inheritingConsumer;
+    @Autowired
+    @Qualifier("excludedBean")
+    private Bean2Included factoryMethodExcludedBean;
 
     @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
     private List<ParentBean> beansWithoutExclude;
@@ -37,11 +55,127 @@ public class ExclusionConditionTest {
                 .hasOnlyElementsOfTypes(Bean1Included.class,
                                         Bean2Included.class,
                                         Bean3Included.class)
-                .doesNotHaveAnyElementsOfTypes(BeanExcluded.class);
+                .doesNotHaveAnyElementsOfTypes(BeanExcluded.class)
+                .doesNotContain(factoryMethodExcludedBean)
+                .hasSize(3);
 
         assertThat(beanExcluded).isNotNull();
     }
 
+    @Test
+    public void should_not_create_excluded_lazy_bean() {
+        try (AnnotationConfigApplicationContext lazyContext =
+                     new AnnotationConfigApplicationContext(LazyConfigurationBean.class)) {
+            assertThat(lazyContext.getBean(LazyConfigurationBean.class).beansWithoutExclude)
+                    .hasOnlyElementsOfTypes(Bean1Included.class);
+            assertThat(lazyContext.getBeanFactory().containsSingleton("lazyExcludedBean")).isFalse();
+        }
+    }
+
+    @Test
+    public void should_inject_superclass_fields() {
+        assertThat(inheritingConsumer.inheritedBeans)
+                .hasOnlyElementsOfTypes(Bean1Included.class,
+                                        Bean2Included.class,
+                                        Bean3Included.class)
+                .doesNotHaveAnyElementsOfTypes(BeanExcluded.class);
+    }
+
+    @Test
+    public void should_resolve_lazy_field_on_first_access() {
+        try (AnnotationConfigApplicationContext lazyContext =
+                     new AnnotationConfigApplicationContext(LazyInjectionConfigurationBean.class)) {
+            List<ParentBean> lazyBeans = lazyContext.getBean(LazyInjectionConfigurationBean.class).lazyBeansWithoutExclude;
+            assertThat(lazyContext.getBeanFactory().containsSingleton("lazyBean2")).isFalse();
+
+            assertThat(lazyBeans).hasOnlyElementsOfTypes(Bean1Included.class, Bean2Included.class)
+                                 .hasSize(2);
+            assertThat(lazyContext.getBeanFactory().containsSingleton("lazyBean2")).isTrue();
+            assertThat(lazyContext.getBeanFactory().containsSingleton("lazyExcludedBean")).isFalse();
+        }
+    }
+
+    @Test
+    public void should_share_candidates_until_a_bean_is_registered() {
+        try (AnnotationConfigApplicationContext sharedContext =
+                     new AnnotationConfigApplicationContext(LazyConfigurationBean.class)) {
+            sharedContext.registerBean(InheritingConsumer.class, bd -> bd.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+            List<ParentBean> first = sharedContext.getBean(InheritingConsumer.class).inheritedBeans;
+            List<ParentBean> second = sharedContext.getBean(InheritingConsumer.class).inheritedBeans;
+            assertThat(second).isSameAs(first);
+
+            sharedContext.getBeanFactory().registerSingleton("lateBean", new Bean2Included());
+            assertThat(sharedContext.getBean(InheritingConsumer.class).inheritedBeans)
+                    .isNotSameAs(first)
+                    .hasOnlyElementsOfTypes(Bean1Included.class, Bean2Included.class)
+                    .hasSize(2);
+        }
+    }
+
+    @Test
+    public void should_inject_ordered_candidates_in_declared_structure() {
+        try (AnnotationConfigApplicationContext orderedContext =
+                     new AnnotationConfigApplicationContext(InjectionTargetsConfigurationBean.class)) {
+            InjectionTargetsConfigurationBean targets = orderedContext.getBean(InjectionTargetsConfigurationBean.class);
+            ParentBean first = orderedContext.getBean("orderedFirst", ParentBean.class);
+            ParentBean second = orderedContext.getBean("orderedSecond", ParentBean.class);
+            ParentBean last = orderedContext.getBean("unordered", ParentBean.class);
+
+            assertThat(targets.list).containsExactly(first, second, last)
+                                    .isInstanceOf(RandomAccess.class);
+            assertThatThrownBy(() -> targets.list.add(new Bean1Included()))
+                    .isInstanceOf(UnsupportedOperationException.class);
+            assertThat(targets.set).containsExactly(first, second, last);
+            assertThat(targets.map).containsOnlyKeys("orderedFirst", "orderedSecond", "unordered");
+            assertThat(targets.map.values()).containsExactly(first, second, last);
+            assertThat(targets.array).containsExactly(first, second, last);
+            assertThat(targets.provider.orderedStream()).containsExactly(first, second, last);
+            assertThat(targets.provider.getIfUnique()).isNull();
+            assertThatThrownBy(targets.provider::getObject).isInstanceOf(NoUniqueBeanDefinitionException.class);
+        }
+    }
+
+    @Test
+    public void should_create_unique_candidate_with_arguments() {
+        try (AnnotationConfigApplicationContext argumentsContext =
+                     new AnnotationConfigApplicationContext(ArgumentsConfigurationBean.class)) {
+            ObjectProvider<ParentBean> provider = argumentsContext.getBean(ArgumentsConfigurationBean.class).provider;
+
+            assertThat(provider.getObject("first")).isInstanceOfSatisfying(NamedBean.class,
+                                                                           bean -> assertThat(bean.name).isEqualTo("first"));
+            assertThat(provider.getObject("second")).isNotSameAs(provider.getObject("second"));
+            assertThat(argumentsContext.getBeanFactory().containsSingleton("excludedBean")).isFalse();
+        }
+    }
+
+    @Test
+    public void should_create_primary_candidate_only() {
+        try (AnnotationConfigApplicationContext primaryContext =
+                     new AnnotationConfigApplicationContext(PrimaryConfigurationBean.class)) {
+            ObjectProvider<ParentBean> provider = primaryContext.getBean(PrimaryConfigurationBean.class).provider;
+
+            assertThat(provider.getObject()).isInstanceOf(Bean1Included.class);
+            assertThat(provider.getIfAvailable()).isSameAs(provider.getObject());
+            assertThat(provider.getIfUnique()).isSameAs(provider.getObject());
+            assertThat(primaryContext.getBeanFactory().containsSingleton("bean2")).isFalse();
+            assertThat(primaryContext.getBeanFactory().containsSingleton("excludedBean")).isFalse();
+        }
+    }
+
+    @Test
+    public void should_reject_lazy_object_provider() {
+        assertThatThrownBy(() -> new AnnotationConfigApplicationContext(LazyObjectProviderConfigurationBean.class))
+                .hasRootCauseInstanceOf(IllegalStateException.class)
+                .hasStackTraceContaining("Lazy @AutowireExcluding field must be declared as a List or a Collection");
+    }
+
+    static abstract class AbstractConsumer {
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        List<ParentBean> inheritedBeans;
+    }
+
+    static class InheritingConsumer extends AbstractConsumer {}
+
     @Configuration
     static class ConfigurationBean {
 
@@ -65,9 +199,197 @@ public class ExclusionConditionTest {
             return new BeanExcluded();
         }
 
+        @Bean
+        @Qualifier("excludedBean")
+        public Bean2Included factoryMethodExcludedBean(){
+            return new Bean2Included();
+        }
+
+        @Bean
+        public InheritingConsumer inheritingConsumer(){
+            return new InheritingConsumer();
+        }
+
         @Bean
         public ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
             return new ExcludingAutowiredBeanPostProcessor();
         }
     }
-}
\ No newline at end of file
+
+    @Configuration
+    static class LazyConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        List<ParentBean> beansWithoutExclude;
+
+        @Bean
+        public Bean1Included bean1(){
+            return new Bean1Included();
+        }
+
+        @Bean
+        @Lazy
+        public BeanExcluded lazyExcludedBean(){
+            return new BeanExcluded();
+        }
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+
+    @Configuration
+    static class LazyInjectionConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class, lazy = true)
+        List<ParentBean> lazyBeansWithoutExclude;
+
+        @Bean
+        public Bean1Included bean1(){
+            return new Bean1Included();
+        }
+
+        @Bean
+        @Lazy
+        public Bean2Included lazyBean2(){
+            return new Bean2Included();
+        }
+
+        @Bean
+        @Lazy
+        public BeanExcluded lazyExcludedBean(){
+            return new BeanExcluded();
+        }
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+
+    @Configuration
+    static class ArgumentsConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        ObjectProvider<ParentBean> provider;
+
+        @Bean
+        @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+        public NamedBean named(String name){
+            return new NamedBean(name);
+        }
+
+        @Bean
+        @Lazy
+        @Qualifier("excludedBean")
+        public BeanExcluded excludedBean(){
+            return new BeanExcluded();
+        }
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+
+    @Configuration
+    static class PrimaryConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        ObjectProvider<ParentBean> provider;
+
+        @Bean
+        @Primary
+        @Lazy
+        public Bean1Included bean1(){
+            return new Bean1Included();
+        }
+
+        @Bean
+        @Lazy
+        public Bean2Included bean2(){
+            return new Bean2Included();
+        }
+
+        @Bean
+        @Lazy
+        @Qualifier("excludedBean")
+        public BeanExcluded excludedBean(){
+            return new BeanExcluded();
+        }
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+
+    @Configuration
+    static class LazyObjectProviderConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class, lazy = true)
+        ObjectProvider<ParentBean> provider;
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+
+    static class NamedBean extends ParentBean {
+        final String name;
+
+        NamedBean(String name) {
+            this.name = name;
+        }
+    }
+
+    @Configuration
+    static class InjectionTargetsConfigurationBean {
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        List<ParentBean> list;
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        Set<ParentBean> set;
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        Map<String, ParentBean> map;
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        ParentBean[] array;
+
+        @AutowireExcluding(qualifierToExcludeValue = "excludedBean", aClass = ParentBean.class)
+        ObjectProvider<ParentBean> provider;
+
+        @Bean
+        public Bean1Included unordered(){
+            return new Bean1Included();
+        }
+
+        @Bean
+        @Order(2)
+        public Bean2Included orderedSecond(){
+            return new Bean2Included();
+        }
+
+        @Bean
+        @Order(1)
+        public Bean3Included orderedFirst(){
+            return new Bean3Included();
+        }
+
+        @Bean
+        @Order(0)
+        @Qualifier("excludedBean")
+        public Bean2Included excludedBean(){
+            return new Bean2Included();
+        }
+
+        @Bean
+        public static ExcludingAutowiredBeanPostProcessor excludeAutowiredBeanPostProcessor(){
+            return new ExcludingAutowiredBeanPostProcessor();
+        }
+    }
+}
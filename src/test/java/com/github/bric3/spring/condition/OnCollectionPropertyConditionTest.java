@@ -2,15 +2,23 @@ package com.github.bric3.spring.condition;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.test.util.TestPropertyValues;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -110,10 +118,115 @@ public class OnCollectionPropertyConditionTest {
         assertThat(context.containsBean("foo")).isTrue();
     }
 
+    @Test
+    public void streaming_all_properties_are_defined() {
+        load(StreamingConfiguration.class,
+             "property[0].sub-property1=value1",
+             "property[0].sub-property2=value2",
+             "property[1].sub-property1=value11",
+             "property[1].sub-property2=value12");
+        assertThat(context.containsBean("foo")).isTrue();
+    }
+
+    @Test
+    public void streaming_not_all_properties_in_collection_are_defined() {
+        load(StreamingConfiguration.class,
+             "property[0].sub-property1=value01",
+             "property[0].sub-property2=value02",
+             "property[1].sub-property1=value11");
+        assertThat(context.containsBean("foo")).isFalse();
+    }
+
+    @Test
+    public void streaming_different_sub_properties_are_defined() {
+        load(StreamingConfiguration.class,
+             "property.sub-property=value");
+        assertThat(context.containsBean("foo")).isFalse();
+    }
+
+    @Test
+    public void streaming_relaxed_name_and_map_style_sub_properties() {
+        load(StreamingConfiguration.class,
+             "Property[one].sub-property1=value1",
+             "property[one].sub-property2=value2");
+        assertThat(context.containsBean("foo")).isTrue();
+    }
+
+    @Test
+    public void binding_is_memoized_across_condition_evaluations() {
+        load(MetaAnnotationAndDirectAnnotation.class,
+             "my.other.feature[one].p1=value1",
+             "my.other.feature[one].p2=value2");
+        PropertiesCollectionBindings bindings = context.getBean(PropertiesCollectionBindings.class);
+        assertThat(bindings.getMisses()).isEqualTo(1);
+        assertThat(bindings.getHits()).isPositive();
+    }
+
+    @Test
+    public void memoized_binding_is_discarded_when_property_sources_change() {
+        StandardEnvironment environment = new StandardEnvironment();
+        PropertiesCollectionBindings bindings = PropertiesCollectionBindings.get(null);
+        assertThat(bindings.bind(environment, "property")).isEmpty();
+
+        environment.getPropertySources().addFirst(new MapPropertySource(
+                "test", Collections.singletonMap("property[0].sub-property1", "value1")));
+        assertThat(bindings.bind(environment, "property")).containsOnlyKeys("0");
+        assertThat(bindings.bind(environment, "property")).containsOnlyKeys("0");
+        assertThat(bindings.getMisses()).isEqualTo(2);
+        assertThat(bindings.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void snapshot_bean_is_registered_when_condition_matches() {
+        load(SnapshotConfiguration.class,
+             "property[0].sub-property1=value1",
+             "property[0].sub-property2=shared",
+             "property[1].sub-property1=value11",
+             "property[1].sub-property2=shared");
+
+        PropertiesCollection snapshot = context.getBean("propertySnapshot", PropertiesCollection.class);
+        assertThat(snapshot.getName()).isEqualTo("property");
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.get(1).get("sub-property1")).isEqualTo("value11");
+        assertThat(snapshot.get("0").getSubProperties()).containsOnlyKeys("sub-property1", "sub-property2");
+        assertThat(snapshot.get(0).get("sub-property2")).isSameAs(snapshot.get(1).get("sub-property2"));
+        assertThat(snapshot.get(2)).isNull();
+        assertThat(context.getBean(PropertiesCollectionBindings.class).getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void snapshot_bean_is_not_registered_when_condition_does_not_match() {
+        load(SnapshotConfiguration.class,
+             "property[0].sub-property1=value1");
+        assertThat(context.containsBean("propertySnapshot")).isFalse();
+    }
+
+    @Test
+    public void snapshot_bean_is_not_registered_when_a_later_condition_does_not_match() {
+        load(SnapshotNeverMatchingConfiguration.class,
+             "property[0].sub-property1=value1",
+             "property[0].sub-property2=value2");
+        assertThat(context.containsBean("foo")).isFalse();
+        assertThat(context.containsBean("propertySnapshot")).isFalse();
+    }
+
+    @Test
+    public void snapshot_bean_backs_off_with_its_configuration() {
+        load(new Class<?>[]{UserSnapshotConfiguration.class, SnapshotMissingBeanConfiguration.class},
+             "property[0].sub-property1=value1",
+             "property[0].sub-property2=value2");
+        assertThat(context.getBean("propertySnapshot")).isEqualTo("user");
+        assertThat(context.containsBean("foo")).isFalse();
+    }
+
     private void load(Class<?> config, String... environment) {
+        load(new Class<?>[]{config}, environment);
+    }
+
+    private void load(Class<?>[] configs, String... environment) {
         context = new AnnotationConfigApplicationContext();
         TestPropertyValues.of(environment).applyTo(context);
-        context.register(config);
+        context.register(configs);
         context.refresh();
     }
 
@@ -135,6 +248,60 @@ public class OnCollectionPropertyConditionTest {
         }
     }
 
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "property", subProperties = {"sub-property1", "sub-property2"}, streaming = true)
+    protected static class StreamingConfiguration {
+        @Bean
+        public String foo() {
+            return "foo";
+        }
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "property", subProperties = {"sub-property1", "sub-property2"}, snapshotBeanName = "propertySnapshot")
+    protected static class SnapshotConfiguration {
+        @Bean
+        public String foo() {
+            return "foo";
+        }
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "property", subProperties = {"sub-property1", "sub-property2"}, snapshotBeanName = "propertySnapshot")
+    @Conditional(NeverMatchingCondition.class)
+    protected static class SnapshotNeverMatchingConfiguration {
+        @Bean
+        public String foo() {
+            return "foo";
+        }
+    }
+
+    @Configuration
+    protected static class UserSnapshotConfiguration {
+        @Bean
+        public String propertySnapshot() {
+            return "user";
+        }
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "property", subProperties = {"sub-property1", "sub-property2"}, snapshotBeanName = "propertySnapshot")
+    @ConditionalOnMissingBean(name = "propertySnapshot")
+    protected static class SnapshotMissingBeanConfiguration {
+        @Bean
+        public String foo() {
+            return "foo";
+        }
+    }
+
+    // not ordered, evaluated after @ConditionalOnPropertiesCollection
+    static class NeverMatchingCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return false;
+        }
+    }
+
     @ConditionalOnMyFeature
     protected static class MetaAnnotation {
         @Bean
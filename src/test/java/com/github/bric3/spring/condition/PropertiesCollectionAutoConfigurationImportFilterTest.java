@@ -0,0 +1,110 @@
+package com.github.bric3.spring.condition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionEvaluationReport;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertiesCollectionAutoConfigurationImportFilterTest {
+
+    private final PropertiesCollectionAutoConfigurationImportFilter filter = new PropertiesCollectionAutoConfigurationImportFilter();
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+    private final StandardEnvironment environment = new StandardEnvironment();
+
+    @BeforeEach
+    public void setUp() {
+        filter.setBeanClassLoader(getClass().getClassLoader());
+        filter.setBeanFactory(beanFactory);
+        filter.setEnvironment(environment);
+    }
+
+    @Test
+    public void rejects_auto_configurations_with_missing_or_incomplete_collections() {
+        TestPropertyValues.of("routes[0].path=/a",
+                              "routes[0].target=http://a",
+                              "routes[1].path=/b",
+                              "routes[1].target=http://b",
+                              "other-routes[0].path=/c")
+                          .applyTo(environment);
+
+        boolean[] match = filter.match(new String[]{
+                RoutesAutoConfiguration.class.getName(),
+                OtherRoutesAutoConfiguration.class.getName(),
+                MissingAutoConfiguration.class.getName(),
+                null,
+                UnconditionalAutoConfiguration.class.getName()
+        }, null);
+
+        assertThat(match).containsExactly(true, false, false, true, true);
+    }
+
+    @Test
+    public void evaluates_meta_annotated_auto_configurations() {
+        TestPropertyValues.of("my.routes[first].path=/a").applyTo(environment);
+
+        boolean[] match = filter.match(new String[]{
+                MetaAnnotatedAutoConfiguration.class.getName(),
+                IncompleteMyRoutesAutoConfiguration.class.getName()
+        }, null);
+
+        assertThat(match).containsExactly(true, false);
+    }
+
+    @Test
+    public void records_rejected_auto_configurations_in_the_condition_evaluation_report() {
+        ConditionEvaluationReport report = ConditionEvaluationReport.get(beanFactory);
+
+        filter.match(new String[]{
+                RoutesAutoConfiguration.class.getName(),
+                UnconditionalAutoConfiguration.class.getName()
+        }, null);
+
+        assertThat(report.getConditionAndOutcomesBySource()).containsOnlyKeys(RoutesAutoConfiguration.class.getName());
+        assertThat(report.getConditionAndOutcomesBySource().get(RoutesAutoConfiguration.class.getName()).isFullMatch()).isFalse();
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "routes", subProperties = {"path", "target"})
+    static class RoutesAutoConfiguration {
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "other-routes", subProperties = {"path", "target"})
+    static class OtherRoutesAutoConfiguration {
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "missing", subProperties = "path")
+    static class MissingAutoConfiguration {
+    }
+
+    @Configuration
+    static class UnconditionalAutoConfiguration {
+    }
+
+    @Configuration
+    @ConditionalOnMyRoutes
+    static class MetaAnnotatedAutoConfiguration {
+    }
+
+    @Configuration
+    @ConditionalOnPropertiesCollection(name = "my.routes", subProperties = {"path", "target"})
+    static class IncompleteMyRoutesAutoConfiguration {
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @ConditionalOnPropertiesCollection(name = "my.routes", subProperties = "path")
+    @interface ConditionalOnMyRoutes {
+    }
+}
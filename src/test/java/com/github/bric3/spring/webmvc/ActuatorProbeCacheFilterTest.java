@@ -0,0 +1,85 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ActuatorProbeCacheFilterTest {
+
+    private final AtomicInteger dispatches = new AtomicInteger();
+    private final HttpServlet healthEndpoint = new HttpServlet() {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.setStatus(503);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"status\":\"DOWN\",\"dispatch\":" + dispatches.incrementAndGet() + "}");
+        }
+    };
+
+    private final ActuatorProbeCacheFilter filter =
+            new ActuatorProbeCacheFilter(Collections.singleton("/actuator/health"), TimeUnit.MINUTES.toNanos(1));
+
+    @Test
+    public void probe_response_is_served_from_cache_within_ttl() throws Exception {
+        probe(new MockHttpServletRequest("GET", "/app/actuator/health"));
+        MockHttpServletResponse response = probe(new MockHttpServletRequest("GET", "/app/actuator/health"));
+
+        assertThat(dispatches).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString()).isEqualTo("{\"status\":\"DOWN\",\"dispatch\":1}");
+        assertThat(filter.getHits()).isEqualTo(1);
+        assertThat(filter.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void probe_response_is_dispatched_again_after_ttl() throws Exception {
+        ActuatorProbeCacheFilter filter = new ActuatorProbeCacheFilter(Collections.singleton("/actuator/health"), 0);
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), new MockFilterChain(healthEndpoint));
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), new MockFilterChain(healthEndpoint));
+
+        assertThat(dispatches).hasValue(2);
+    }
+
+    @Test
+    public void requests_with_credentials_query_or_other_path_are_dispatched() throws Exception {
+        probe(new MockHttpServletRequest("GET", "/app/actuator/health"));
+
+        MockHttpServletRequest authenticated = new MockHttpServletRequest("GET", "/app/actuator/health");
+        authenticated.addHeader("Authorization", "Basic dXNlcjpwYXNz");
+        probe(authenticated);
+        MockHttpServletRequest withQuery = new MockHttpServletRequest("GET", "/app/actuator/health");
+        withQuery.setQueryString("details=true");
+        probe(withQuery);
+        probe(new MockHttpServletRequest("GET", "/app/actuator/health/db"));
+
+        assertThat(dispatches).hasValue(4);
+    }
+
+    @Test
+    public void head_response_is_not_cached_for_get_requests() throws Exception {
+        probe(new MockHttpServletRequest("HEAD", "/app/actuator/health"));
+        MockHttpServletResponse response = probe(new MockHttpServletRequest("GET", "/app/actuator/health"));
+
+        assertThat(dispatches).hasValue(2);
+        assertThat(response.getContentAsString()).isEqualTo("{\"status\":\"DOWN\",\"dispatch\":2}");
+    }
+
+    private MockHttpServletResponse probe(MockHttpServletRequest request) throws Exception {
+        request.setContextPath("/app");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(healthEndpoint));
+        return response;
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CachingRequestMappingHandlerMappingTest {
+
+    private final CachingRequestMappingHandlerMapping handlerMapping = new CachingRequestMappingHandlerMapping(16, 0);
+
+    @BeforeEach
+    public void setUp() {
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.registerSingleton("usersController", UsersController.class);
+        context.refresh();
+        handlerMapping.setApplicationContext(context);
+        handlerMapping.afterPropertiesSet();
+    }
+
+    @Test
+    public void pattern_only_resolution_is_cached_and_uri_variables_are_extracted_again() throws Exception {
+        HandlerMethod first = handlerMethod(new MockHttpServletRequest("GET", "/users/1"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        HandlerMethod second = handlerMethod(request);
+
+        assertThat(second.getMethod()).isEqualTo(first.getMethod());
+        assertThat(second.getMethod().getName()).isEqualTo("user");
+        assertThat(uriTemplateVariables(request)).containsEntry("id", "1");
+        assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/users/{id}");
+        assertThat(handlerMapping.getCacheHits()).isEqualTo(1);
+        assertThat(handlerMapping.getCacheMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void resolution_depending_on_other_conditions_is_not_cached() throws Exception {
+        MockHttpServletRequest jsonRequest = new MockHttpServletRequest("GET", "/users");
+        jsonRequest.addHeader("Accept", "application/json");
+        assertThat(handlerMethod(jsonRequest).getMethod().getName()).isEqualTo("usersAsJson");
+
+        MockHttpServletRequest csvRequest = new MockHttpServletRequest("GET", "/users");
+        csvRequest.addHeader("Accept", "text/csv");
+        assertThat(handlerMethod(csvRequest).getMethod().getName()).isEqualTo("usersAsCsv");
+
+        assertThat(handlerMapping.getCacheHits()).isZero();
+        assertThat(handlerMapping.getCacheMisses()).isEqualTo(2);
+        assertThat(handlerMapping.getCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void cache_is_keyed_by_http_method() throws Exception {
+        handlerMethod(new MockHttpServletRequest("GET", "/users/1"));
+
+        assertThatThrownBy(() -> handlerMapping.getHandler(new MockHttpServletRequest("DELETE", "/users/1")))
+                .isInstanceOf(HttpRequestMethodNotSupportedException.class);
+        assertThat(handlerMapping.getCacheHits()).isZero();
+        assertThat(handlerMapping.getCacheSize()).isEqualTo(1);
+    }
+
+    private HandlerMethod handlerMethod(MockHttpServletRequest request) throws Exception {
+        return (HandlerMethod) handlerMapping.getHandler(request).getHandler();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> uriTemplateVariables(MockHttpServletRequest request) {
+        return (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    }
+
+    @Controller
+    static class UsersController {
+        @GetMapping("/users/{id}")
+        public String user(@PathVariable String id) {
+            return id;
+        }
+
+        @GetMapping(path = "/users", produces = "application/json")
+        public String usersAsJson() {
+            return "[]";
+        }
+
+        @GetMapping(path = "/users", produces = "text/csv")
+        public String usersAsCsv() {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentLruCacheTest {
+
+    @Test
+    public void least_recently_accessed_entry_is_evicted() throws InterruptedException {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, 0);
+        cache.put("a", "A");
+        TimeUnit.MILLISECONDS.sleep(1);
+        cache.put("b", "B");
+        TimeUnit.MILLISECONDS.sleep(1);
+        assertThat(cache.get("a")).isEqualTo("A");
+
+        cache.put("c", "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo("A");
+        assertThat(cache.get("c")).isEqualTo("C");
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void entry_expires_after_access() throws InterruptedException {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(2, TimeUnit.MILLISECONDS.toNanos(5));
+        cache.put("a", "A");
+        TimeUnit.MILLISECONDS.sleep(10);
+
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.bric3.spring.webmvc;
+
+import com.github.bric3.spring.actuate.LeftoutsStartupMetrics;
+import com.github.bric3.spring.webmvc.DispatcherServletShards.DispatcherServletShard;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.Shard;
+import com.github.bric3.spring.webmvc.shards.orders.OrdersController;
+import com.github.bric3.spring.webmvc.shards.users.UsersController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DispatcherServletShardsTest {
+    private final MockServletContext servletContext = new MockServletContext();
+    private final AnnotationConfigWebApplicationContext parent = new AnnotationConfigWebApplicationContext();
+    private DispatcherServletShards shards;
+
+    @AfterEach
+    public void close() {
+        if (shards != null) {
+            shards.destroy();
+        }
+        parent.close();
+    }
+
+    @Test
+    public void each_shard_only_maps_its_own_controllers() throws Exception {
+        shards = shards(false, true);
+        shards.refresh(servletContext);
+        DispatcherServletShard orders = shards.getShards().get(0);
+        DispatcherServletShard users = shards.getShards().get(1);
+
+        assertThat(orders.context.getBeanNamesForType(OrdersController.class)).hasSize(1);
+        assertThat(orders.context.getBeanNamesForType(UsersController.class)).isEmpty();
+        assertThat(users.context.getBeanNamesForType(OrdersController.class)).isEmpty();
+
+        assertThat(get(orders, "/orders", "/42").getContentAsString()).isEqualTo("hello order 42");
+        assertThat(get(orders, "/users", "/42").getStatus()).isEqualTo(404);
+        assertThat(get(users, "/users", "/7").getContentAsString()).isEqualTo("hello user 7");
+    }
+
+    @Test
+    public void lazy_shard_is_refreshed_on_servlet_initialization() throws Exception {
+        shards = shards(true, false);
+        shards.refresh(servletContext);
+        DispatcherServletShard orders = shards.getShards().get(0);
+        DispatcherServletShard users = shards.getShards().get(1);
+
+        assertThat(orders.context.isActive()).isTrue();
+        assertThat(users.context.isActive()).isFalse();
+
+        assertThat(get(users, "/users", "/7").getContentAsString()).isEqualTo("hello user 7");
+        assertThat(users.context.isActive()).isTrue();
+    }
+
+    private DispatcherServletShards shards(boolean lazyUsers, boolean parallelInitialization) {
+        parent.setServletContext(servletContext);
+        parent.register(ParentConfiguration.class);
+        parent.refresh();
+
+        Map<String, Shard> shards = new LinkedHashMap<>();
+        shards.put("orders", shard("/orders/*", OrdersController.class.getPackage().getName(), false));
+        shards.put("users", shard("/users/*", UsersController.class.getPackage().getName(), lazyUsers));
+        return new DispatcherServletShards(parent,
+                                           shards,
+                                           parallelInitialization,
+                                           new WebMvcProperties(),
+                                           null,
+                                           LeftoutsStartupMetrics.DISABLED);
+    }
+
+    private static Shard shard(String urlMapping, String basePackage, boolean lazyInit) {
+        Shard shard = new Shard();
+        shard.getUrlMappings().add(urlMapping);
+        shard.setBasePackages(Collections.singletonList(basePackage));
+        shard.setLazyInit(lazyInit);
+        return shard;
+    }
+
+    private MockHttpServletResponse get(DispatcherServletShard shard, String servletPath, String pathInfo) throws Exception {
+        if (shard.dispatcherServlet.getServletConfig() == null) {
+            shard.dispatcherServlet.init(new MockServletConfig(servletContext, shard.servletName));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", servletPath + pathInfo);
+        request.setServletPath(servletPath);
+        request.setPathInfo(pathInfo);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        shard.dispatcherServlet.service(request, response);
+        return response;
+    }
+
+    @Configuration
+    static class ParentConfiguration {
+        @Bean
+        Supplier<String> greeting() {
+            return () -> "hello";
+        }
+
+        @Bean
+        WebMvcConfigurer useFullPath() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void configurePathMatch(PathMatchConfigurer configurer) {
+                    configurer.setUrlPathHelper(FullPathUrlPathHelper.INSTANCE);
+                    configurer.setPathMatcher(PrecompiledPathMatcher.INSTANCE);
+                }
+            };
+        }
+    }
+}
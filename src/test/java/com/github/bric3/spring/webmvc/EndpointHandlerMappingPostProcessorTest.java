@@ -0,0 +1,52 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.EndpointLinksResolver;
+import org.springframework.boot.actuate.endpoint.web.EndpointMapping;
+import org.springframework.boot.actuate.endpoint.web.EndpointMediaTypes;
+import org.springframework.boot.actuate.endpoint.web.servlet.WebMvcEndpointHandlerMapping;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EndpointHandlerMappingPostProcessorTest {
+
+    @Test
+    public void endpoint_mappings_are_matched_on_the_full_path() throws Exception {
+        WebMvcEndpointHandlerMapping handlerMapping = new WebMvcEndpointHandlerMapping(
+                new EndpointMapping("/actuator"),
+                Collections.emptyList(),
+                new EndpointMediaTypes(Collections.singletonList("application/json"),
+                                       Collections.singletonList("application/json")),
+                null,
+                new EndpointLinksResolver(Collections.emptyList()),
+                true);
+        handlerMapping.afterPropertiesSet();
+
+        new EndpointHandlerMappingPostProcessor().postProcessAfterInitialization(handlerMapping, "webEndpointServletHandlerMapping");
+
+        assertThat(handlerMapping.getHandlerMethods()).hasSize(1);
+        RequestMappingInfo mapping = handlerMapping.getHandlerMethods().keySet().iterator().next();
+        assertThat(mapping.getPatternsCondition().getPatterns()).containsExactly("/actuator");
+
+        // DispatcherServlet mapped on /actuator/*
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/");
+        request.setServletPath("/actuator");
+        request.setPathInfo("/");
+        request.addHeader("Accept", "application/json");
+        HandlerExecutionChain handler = handlerMapping.getHandler(request);
+
+        assertThat(handler).isNotNull();
+        assertThat(((HandlerMethod) handler.getHandler()).getMethod().getName()).isEqualTo("links");
+
+        // suffix pattern match, like the actuator mappings patched by reflection
+        MockHttpServletRequest suffixRequest = new MockHttpServletRequest("GET", "/actuator.json");
+        suffixRequest.addHeader("Accept", "application/json");
+        assertThat(handlerMapping.getHandler(suffixRequest)).isNotNull();
+    }
+}
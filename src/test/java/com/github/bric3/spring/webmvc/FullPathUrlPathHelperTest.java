@@ -0,0 +1,46 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.util.WebUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FullPathUrlPathHelperTest {
+
+    private final FullPathUrlPathHelper urlPathHelper = FullPathUrlPathHelper.INSTANCE;
+
+    @Test
+    public void lookup_path_is_the_full_path_resolved_once_per_request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/mvc/my%20users");
+        request.setContextPath("/app");
+        request.setServletPath("/mvc");
+        request.setPathInfo("/my users");
+
+        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
+
+        assertThat(lookupPath).isEqualTo("/mvc/my users");
+        assertThat(urlPathHelper.getLookupPathForRequest(request)).isSameAs(lookupPath);
+    }
+
+    @Test
+    public void lookup_path_is_resolved_again_when_request_uri_changes() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mvc/users");
+        assertThat(urlPathHelper.getLookupPathForRequest(request)).isEqualTo("/mvc/users");
+
+        request.setRequestURI("/mvc/forwarded");
+        assertThat(urlPathHelper.getLookupPathForRequest(request)).isEqualTo("/mvc/forwarded");
+
+        request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/mvc/included");
+        assertThat(urlPathHelper.getLookupPathForRequest(request)).isEqualTo("/mvc/included");
+    }
+
+    @Test
+    public void shared_instance_cannot_be_modified() {
+        assertThatThrownBy(() -> urlPathHelper.setAlwaysUseFullPath(false))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> urlPathHelper.setUrlDecode(false))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.bric3.spring.webmvc;
+
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.AsyncExecution;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.RejectionPolicy;
+import com.github.bric3.spring.webmvc.SpringWebMvcPlusJerseyHackConfiguration.WebMvcEnforcedPrefixesProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.MultipartConfigElement;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MvcAsyncExecutionConfigurerTest {
+
+    @Test
+    public void saturated_executor_rejects_and_counts() throws Exception {
+        MvcAsyncExecutionConfigurer configurer = new MvcAsyncExecutionConfigurer(asyncExecution(RejectionPolicy.ABORT));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            configurer.getTaskExecutor().execute(() -> await(release));
+            configurer.getTaskExecutor().execute(() -> await(release));
+
+            assertThatThrownBy(() -> configurer.getTaskExecutor().execute(() -> await(release)))
+                    .isInstanceOf(TaskRejectedException.class);
+            assertThat(configurer.getRejectedCount()).isEqualTo(1);
+            assertThat(configurer.getPoolSize()).isEqualTo(1);
+            assertThat(configurer.getQueueSize()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            configurer.destroy();
+        }
+    }
+
+    @Test
+    public void saturated_executor_runs_on_caller_thread() throws Exception {
+        MvcAsyncExecutionConfigurer configurer = new MvcAsyncExecutionConfigurer(asyncExecution(RejectionPolicy.CALLER_RUNS));
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            configurer.getTaskExecutor().execute(() -> await(release));
+            configurer.getTaskExecutor().execute(() -> await(release));
+
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            configurer.getTaskExecutor().execute(() -> runner.set(Thread.currentThread()));
+
+            assertThat(runner.get()).isSameAs(Thread.currentThread());
+            assertThat(configurer.getRejectedCount()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            configurer.destroy();
+        }
+    }
+
+    @Test
+    public void dispatcher_servlet_registration_supports_async() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        WebMvcEnforcedPrefixesProperties properties = new WebMvcEnforcedPrefixesProperties();
+        properties.setUrlMappings(Collections.singleton("/mvc/*"));
+        SpringWebMvcPlusJerseyHackConfiguration configuration =
+                new SpringWebMvcPlusJerseyHackConfiguration(new WebMvcProperties(),
+                                                            beanFactory.getBeanProvider(MultipartConfigElement.class),
+                                                            properties,
+                                                            beanFactory,
+                                                            new MockEnvironment());
+
+        // the Callable handlers need async support, which the registration enables by default
+        ServletRegistrationBean<DispatcherServlet> registration =
+                configuration.dispatcherServletRegistration(new DispatcherServlet(), properties);
+        assertThat(registration.isAsyncSupported()).isTrue();
+    }
+
+    private static AsyncExecution asyncExecution(RejectionPolicy rejectionPolicy) {
+        AsyncExecution asyncExecution = new AsyncExecution();
+        asyncExecution.setEnabled(true);
+        asyncExecution.setCorePoolSize(1);
+        asyncExecution.setMaxPoolSize(1);
+        asyncExecution.setQueueCapacity(1);
+        asyncExecution.setRejectionPolicy(rejectionPolicy);
+        return asyncExecution;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PrecompiledPathMatcherTest {
+
+    private static final String[] PATTERNS = {
+            "/", "/users", "/users/", "/users/{id}", "/users/{id}/orders/{orderId}", "/users/*", "/users/*/orders",
+            "/users/{id:\\d+}", "/users/{id}.*", "/users/**", "/users/**/orders", "/**", "/*", "/use?s", "/users/ab*",
+            "users", "/users//orders", "/actuator/health", "/actuator/health/{*path}", "/actuator/health/**"
+    };
+
+    private static final String[] PATHS = {
+            "/", "/users", "/users/", "/users/1", "/users/1/", "/users/1/orders", "/users/1/orders/2", "/users/abc",
+            "/users/1.json", "/users//1", "/usersx", "/uses", "/user", "/other/users", "users", "", "/users/a\nb",
+            "/actuator/health", "/actuator/health/db", "/actuator/healthz", "/users/1/orders/2/items"
+    };
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private final PrecompiledPathMatcher pathMatcher = PrecompiledPathMatcher.INSTANCE;
+
+    @Test
+    public void matches_like_ant_path_matcher() {
+        for (String pattern : PATTERNS) {
+            for (String path : PATHS) {
+                assertThat(pathMatcher.match(pattern, path))
+                        .describedAs("'%s' matching '%s'", pattern, path)
+                        .isEqualTo(antPathMatcher.match(pattern, path));
+            }
+        }
+    }
+
+    @Test
+    public void other_operations_are_inherited() {
+        assertThat(pathMatcher.extractUriTemplateVariables("/users/{id}", "/users/1")).containsEntry("id", "1");
+        assertThat(pathMatcher.combine("/users", "{id}")).isEqualTo("/users/{id}");
+        assertThat(pathMatcher.matchStart("/users/{id}/orders", "/users/1")).isTrue();
+    }
+
+    @Test
+    public void shared_instance_cannot_be_modified() {
+        assertThatThrownBy(() -> pathMatcher.setCaseSensitive(false))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StreamingMultipartTest {
+    private static final String BOUNDARY = "----boundary42";
+
+    @Test
+    public void parts_are_read_as_they_arrive(@TempDir Path spool) throws IOException {
+        String content = repeat("0123456789abcdef", 100) + "\r\n--not-the-boundary";
+        StreamingMultipart multipart = new StreamingMultipart(trickle(body(content)), BOUNDARY, 128, -1, -1);
+
+        StreamingPart field = multipart.nextPart();
+        assertThat(field).isNotNull();
+        assertThat(field.getName()).isEqualTo("description");
+        assertThat(field.getFilename()).isNull();
+        assertThat(StreamUtils.copyToString(field.getInputStream(), StandardCharsets.UTF_8)).isEqualTo("a file");
+
+        StreamingPart file = multipart.nextPart();
+        assertThat(file).isNotNull();
+        assertThat(file.getName()).isEqualTo("file");
+        assertThat(file.getFilename()).isEqualTo("data.txt");
+        assertThat(file.getContentType()).isEqualTo("text/plain");
+        Path spooled = spool.resolve("data.txt");
+        assertThat(file.transferTo(spooled)).isEqualTo(content.length());
+        assertThat(new String(Files.readAllBytes(spooled), StandardCharsets.UTF_8)).isEqualTo(content);
+
+        // not read, skipped by the next call
+        assertThat(multipart.nextPart()).isNotNull();
+        assertThat(multipart.nextPart()).isNull();
+        assertThat(multipart.nextPart()).isNull();
+    }
+
+    @Test
+    public void parts_over_the_limits_are_rejected() throws IOException {
+        String content = repeat("x", 1000);
+
+        StreamingMultipart fileLimited = new StreamingMultipart(trickle(body(content)), BOUNDARY, 128, 500, -1);
+        assertThat(fileLimited.nextPart()).isNotNull();
+        StreamingPart file = fileLimited.nextPart();
+        assertThatThrownBy(() -> StreamUtils.drain(file.getInputStream()))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThat(file.getSize()).isLessThanOrEqualTo(500);
+
+        StreamingMultipart requestLimited = new StreamingMultipart(trickle(body(content)), BOUNDARY, 128, -1, 500);
+        assertThat(requestLimited.nextPart()).isNotNull();
+        assertThatThrownBy(() -> StreamUtils.drain(requestLimited.nextPart().getInputStream()))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+    }
+
+    private static byte[] body(String fileContent) {
+        return ("preamble\r\n" +
+                "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"description\"\r\n" +
+                "\r\n" +
+                "a file\r\n" +
+                "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"file\"; filename=\"data.txt\"\r\n" +
+                "Content-Type: text/plain\r\n" +
+                "\r\n" +
+                fileContent + "\r\n" +
+                "--" + BOUNDARY + "\r\n" +
+                "Content-Disposition: form-data; name=\"ignored\"\r\n" +
+                "\r\n" +
+                "ignored\r\n" +
+                "--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // a few bytes per read, so the delimiters are split across reads
+    private static InputStream trickle(byte[] body) {
+        return new FilterInputStream(new ByteArrayInputStream(body)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+    }
+
+    private static String repeat(String value, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.bric3.spring.webmvc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UrlMappingsTrieTest {
+
+    private final UrlMappingsTrie urlMappings = new UrlMappingsTrie(Arrays.asList("/mvc/*", "/mvc-admin/*", "/status", "*.do"));
+
+    @Test
+    public void prefix_mapping_matches_the_prefix_path_and_its_sub_paths() {
+        assertThat(urlMappings.matches("", "/mvc")).isTrue();
+        assertThat(urlMappings.matches("", "/mvc/")).isTrue();
+        assertThat(urlMappings.matches("", "/mvc/users/1")).isTrue();
+        assertThat(urlMappings.matches("", "/mvc-admin/users")).isTrue();
+        assertThat(urlMappings.matches("", "/mvcx")).isFalse();
+        assertThat(urlMappings.matches("", "/mv")).isFalse();
+        assertThat(urlMappings.matches("", "/jersey/mvc")).isFalse();
+    }
+
+    @Test
+    public void exact_mapping_only_matches_the_exact_path() {
+        assertThat(urlMappings.matches("", "/status")).isTrue();
+        assertThat(urlMappings.matches("", "/status/")).isFalse();
+        assertThat(urlMappings.matches("", "/statuses")).isFalse();
+    }
+
+    @Test
+    public void extension_mapping_matches_the_last_segment() {
+        assertThat(urlMappings.matches("", "/jersey/form.do")).isTrue();
+        assertThat(urlMappings.matches("", "/jersey/form.dox")).isFalse();
+    }
+
+    @Test
+    public void path_is_split_between_servlet_path_and_path_info() {
+        assertThat(urlMappings.matches("/mv", "c/users")).isTrue();
+        assertThat(urlMappings.matches("/mvc", null)).isTrue();
+        assertThat(urlMappings.matches("/jersey", "/form.do")).isTrue();
+        assertThat(urlMappings.matches("/jersey", null)).isFalse();
+    }
+
+    @Test
+    public void default_and_root_mappings() {
+        assertThat(new UrlMappingsTrie(Collections.singleton("/")).matches("", "/anything")).isTrue();
+        assertThat(new UrlMappingsTrie(Collections.singleton("/*")).matches("", "/anything")).isTrue();
+        assertThat(new UrlMappingsTrie(Collections.singleton("")).matches("", "/")).isTrue();
+        assertThat(new UrlMappingsTrie(Collections.singleton("")).matches("", "/anything")).isFalse();
+    }
+
+    @Test
+    public void invalid_mapping_is_rejected() {
+        assertThatThrownBy(() -> new UrlMappingsTrie(Collections.singleton("mvc/*")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.bric3.spring.webmvc.shards.orders;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.function.Supplier;
+
+@RestController
+public class OrdersController {
+    private final Supplier<String> greeting;
+
+    public OrdersController(Supplier<String> greeting) {
+        this.greeting = greeting;
+    }
+
+    @GetMapping("/orders/{id}")
+    public String order(@PathVariable String id) {
+        return greeting.get() + " order " + id;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.bric3.spring.webmvc.shards.users;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.function.Supplier;
+
+@RestController
+public class UsersController {
+    private final Supplier<String> greeting;
+
+    public UsersController(Supplier<String> greeting) {
+        this.greeting = greeting;
+    }
+
+    @GetMapping("/users/{id}")
+    public String user(@PathVariable String id) {
+        return greeting.get() + " user " + id;
+    }
+}